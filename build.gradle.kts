@@ -2,6 +2,7 @@ plugins {
     java
     alias(libs.plugins.spring.boot)
     alias(libs.plugins.spring.dependency.management)
+    alias(libs.plugins.jmh)
     id("jacoco")
 }
 
@@ -23,6 +24,8 @@ dependencyManagement {
 
 dependencies {
     implementation(libs.spring.boot.starter.web)
+    implementation(libs.spring.boot.starter.actuator)
+    runtimeOnly(libs.micrometer.registry.prometheus)
     compileOnly(libs.lombok)
     annotationProcessor(libs.lombok)
     annotationProcessor(libs.spring.boot.configuration.processor)
@@ -30,14 +33,60 @@ dependencies {
 }
 
 // about source and compilation
+// -PjavaToolchain=21 을 주면 해당 버전 툴체인으로 빌드/실행 (가상 스레드 모드는 21 이상 필요)
 java {
-    sourceCompatibility = JavaVersion.VERSION_17
+    val javaToolchain = findProperty("javaToolchain")?.toString()
+    if (javaToolchain != null) {
+        toolchain {
+            languageVersion.set(JavaLanguageVersion.of(javaToolchain))
+        }
+    } else {
+        sourceCompatibility = JavaVersion.VERSION_17
+    }
 }
 
 with(extensions.getByType(JacocoPluginExtension::class.java)) {
     toolVersion = "0.8.7"
 }
 
+// JMH 벤치마크 (src/jmh) : ./gradlew jmh
+// 측정용 코드는 모두 src/jmh 에 두고, 힙 사용량처럼 시간이 아닌 값은 @AuxCounters 보조 지표로 기록
+// 결과는 커밋별로 build/reports/jmh/results-<커밋>.json 에 남겨 ops/s 와 bytes/op(gc.alloc.rate.norm)를 비교
+val gitRevision = runCatching {
+    providers.exec { commandLine("git", "rev-parse", "--short", "HEAD") }.standardOutput.asText.get().trim()
+}.getOrDefault("unknown")
+
+jmh {
+    jmhVersion.set(libs.versions.jmh.core)
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results-$gitRevision.json"))
+    // -PjmhIncludes=PointServiceBenchmark.getUserPoint 처럼 일부 벤치마크만 실행
+    findProperty("jmhIncludes")?.let { includes.set(listOf(it.toString())) }
+}
+
+// HTTP 부하 테스트 (src/loadTest) : ./gradlew loadTest -PloadTestArgs="--rate=500 --duration=60 --zipf=1.2"
+// 내장 서버를 띄워 PointController 에 open-loop 로 요청을 보내고 엔드포인트별 지연 시간 백분위를 출력
+val loadTest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+configurations[loadTest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[loadTest.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+dependencies {
+    "loadTestImplementation"(libs.hdrhistogram)
+}
+
+tasks.register<JavaExec>("loadTest") {
+    description = "Runs the HTTP load generator against an embedded server."
+    group = "verification"
+    classpath = loadTest.runtimeClasspath
+    mainClass.set("io.hhplus.tdd.PointLoadTest")
+    args(findProperty("loadTestArgs")?.toString()?.split(" ")?.filter { it.isNotBlank() } ?: emptyList())
+    maxHeapSize = "2g"
+}
+
 // bundling tasks
 tasks.getByName("bootJar") {
     enabled = true
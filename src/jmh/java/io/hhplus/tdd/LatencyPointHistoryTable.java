@@ -0,0 +1,43 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 지연 시간을 고정값으로 바꿀 수 있는 PointHistoryTable (벤치마크 전용)
+ */
+public class LatencyPointHistoryTable extends PointHistoryTable {
+
+    private final ConcurrentLinkedQueue<PointHistory> table = new ConcurrentLinkedQueue<>();
+    private final AtomicLong cursor = new AtomicLong(1);
+    private volatile long latencyNanos;
+
+    public LatencyPointHistoryTable(long latencyMicros) {
+        setLatencyMicros(latencyMicros);
+    }
+
+    public void setLatencyMicros(long latencyMicros) {
+        this.latencyNanos = latencyMicros * 1_000;
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+        PointHistory pointHistory = new PointHistory(cursor.getAndIncrement(), userId, amount, type, updateMillis);
+        table.add(pointHistory);
+        return pointHistory;
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return table.stream().filter(pointHistory -> pointHistory.userId() == userId).toList();
+    }
+}
@@ -0,0 +1,46 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 지연 시간을 고정값으로 바꿀 수 있는 UserPointTable (벤치마크 전용)
+ * - 원본 테이블의 0~200/300ms 무작위 지연 대신 지정한 시간만큼만 대기합니다.
+ */
+public class LatencyUserPointTable extends UserPointTable {
+
+    private final Map<Long, UserPoint> table = new ConcurrentHashMap<>();
+    private volatile long latencyNanos;
+
+    public LatencyUserPointTable(long latencyMicros) {
+        setLatencyMicros(latencyMicros);
+    }
+
+    public void setLatencyMicros(long latencyMicros) {
+        this.latencyNanos = latencyMicros * 1_000;
+    }
+
+    @Override
+    public UserPoint selectById(Long id) {
+        throttle();
+        return table.getOrDefault(id, UserPoint.empty(id));
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        throttle();
+        UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+        table.put(id, userPoint);
+        return userPoint;
+    }
+
+    private void throttle() {
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.LongBalanceMap;
+import io.hhplus.tdd.point.UserPoint;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 잔고 조회/저장의 처리량과 할당량을 LongBalanceMap 과 ConcurrentHashMap&lt;Long, UserPoint&gt; 로 비교하는 벤치마크
+ * - gc 프로파일러의 gc.alloc.rate.norm(bytes/op)으로 조회/저장 경로의 할당 여부를 확인합니다.
+ * - 사용자 ID 는 Long 캐시(-128~127) 범위 밖의 값을 사용해 박싱 비용이 그대로 드러나게 합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class LongBalanceMapBenchmark {
+
+    private static final long FIRST_ID = 1_000_000;
+
+    @Param({"100000"})
+    public int users;
+
+    private LongBalanceMap primitive;
+    private ConcurrentHashMap<Long, UserPoint> boxed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        primitive = new LongBalanceMap(users);
+        boxed = new ConcurrentHashMap<>(users);
+        for (long id = FIRST_ID; id < FIRST_ID + users; id++) {
+            primitive.put(id, 5_000, id);
+            boxed.put(id, new UserPoint(id, 5_000, id));
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long primitiveGet() {
+        return primitive.point(randomId(), 0);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long boxedGet() {
+        UserPoint userPoint = boxed.get(randomId());
+        return userPoint == null ? 0 : userPoint.point();
+    }
+
+    @Benchmark
+    public void primitivePut() {
+        long id = randomId();
+        primitive.put(id, id & 0xFFF, id);
+    }
+
+    @Benchmark
+    public void boxedPut() {
+        long id = randomId();
+        boxed.put(id, new UserPoint(id, id & 0xFFF, id));
+    }
+
+    private long randomId() {
+        return FIRST_ID + ThreadLocalRandom.current().nextInt(users);
+    }
+}
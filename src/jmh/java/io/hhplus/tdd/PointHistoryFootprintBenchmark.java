@@ -0,0 +1,106 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryLog;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 내역 행당 힙 사용량(GC 후 남은 크기)을 PointHistoryTable 과 같은 객체 목록 방식과 사용자별 열 저장 방식으로 비교하는 벤치마크
+ * - objects : PointHistory 객체 목록, columnar : 내역 로그를 재생해 채운 PointHistoryRepository 인덱스
+ * - 결과의 bytesPerRow 보조 지표가 행당 힙 사용량이며, 시간(ms)은 구조를 채우는 데 걸린 시간입니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class PointHistoryFootprintBenchmark {
+
+    private static final int ROWS = 5_000_000;
+    private static final int USERS = 100_000;
+
+    @Param({"objects", "columnar"})
+    public String layout;
+
+    private Path directory;
+    private Object retained;
+
+    /**
+     * 한 번의 측정에서 잰 행당 힙 사용량
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long bytesPerRow;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytesPerRow = 0;
+        }
+    }
+
+    // 열 저장 방식은 테이블을 거치지 않도록 내역 로그를 미리 써 두고 재생해 인덱스만 채움
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("point-history-footprint");
+        try (PointHistoryLog log = PointHistoryLog.open(directory, 1 << 20)) {
+            for (int i = 1; i <= ROWS; i++) {
+                log.append(i, i % USERS, 100, TransactionType.CHARGE, i);
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void release() {
+        retained = null;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object fill(Footprint footprint) {
+        long baseline = usedHeap();
+        if (layout.equals("objects")) {
+            List<PointHistory> rows = new ArrayList<>();
+            for (int i = 1; i <= ROWS; i++) {
+                rows.add(new PointHistory(i, i % USERS, 100, TransactionType.CHARGE, i));
+            }
+            retained = rows;
+        } else {
+            try (PointHistoryLog log = PointHistoryLog.open(directory, 1 << 20)) {
+                retained = new PointHistoryRepository(new PointHistoryTable(), new SimpleMeterRegistry(), log);
+            }
+        }
+        footprint.bytesPerRow = (usedHeap() - baseline) / ROWS;
+        return retained;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,90 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryLog;
+import io.hhplus.tdd.point.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * PointHistoryLog 의 추가 처리량과 재시작 시 재생(복구) 시간 벤치마크
+ * - append : 빈 디렉터리에 records 건을 추가하는 데 걸린 시간 (처리량 = records / 시간)
+ * - replay : records 건이 기록된 로그를 다시 열고 끝까지 재생하는 데 걸린 시간
+ * - 기본 50,000,000 건은 디스크에 약 2GB 를 사용합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class PointHistoryLogBenchmark {
+
+    @Param({"50000000"})
+    public int records;
+
+    @Param({"1048576"})
+    public int segmentRecords;
+
+    private Path appendDirectory;
+    private Path replayDirectory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        replayDirectory = Files.createTempDirectory("point-history-replay");
+        try (PointHistoryLog log = PointHistoryLog.open(replayDirectory, segmentRecords)) {
+            write(log, records);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void createAppendDirectory() throws IOException {
+        appendDirectory = Files.createTempDirectory("point-history-append");
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteAppendDirectory() throws IOException {
+        delete(appendDirectory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        delete(replayDirectory);
+    }
+
+    @Benchmark
+    public long append() {
+        try (PointHistoryLog log = PointHistoryLog.open(appendDirectory, segmentRecords)) {
+            write(log, records);
+            return log.count();
+        }
+    }
+
+    @Benchmark
+    public long replay() {
+        long[] checksum = {0};
+        try (PointHistoryLog log = PointHistoryLog.open(replayDirectory, segmentRecords)) {
+            log.replay((id, userId, amount, type, updateMillis) -> checksum[0] += amount);
+        }
+        return checksum[0];
+    }
+
+    private static void write(PointHistoryLog log, int records) {
+        for (int i = 1; i <= records; i++) {
+            log.append(i, i % 100_000, 100, (i & 1) == 0 ? TransactionType.CHARGE : TransactionType.USE, i);
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
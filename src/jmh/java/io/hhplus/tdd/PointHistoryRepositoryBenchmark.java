@@ -0,0 +1,59 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 전체 내역 수가 늘어날 때 사용자별 인덱스 조회 지연이 일정하게 유지되는지 측정하는 벤치마크
+ * - indexed : 사용자별 인덱스 조회 (PointHistoryRepository)
+ * - scanned : 테이블 전체 스캔 조회 (PointHistoryTable 방식)
+ * - 대상 사용자의 내역은 totalRows 와 관계없이 100건이며, 테이블 지연 없이 순수 조회 비용만 비교합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PointHistoryRepositoryBenchmark {
+
+    private static final long TARGET_USER_ID = 0L;
+    private static final int TARGET_USER_ROWS = 100;
+    private static final int OTHER_USERS = 100_000;
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    public int totalRows;
+
+    private LatencyPointHistoryTable table;
+    private PointHistoryRepository repository;
+
+    // 대상 사용자의 내역 수는 고정하고, 나머지는 다른 사용자들에게 무작위로 분배
+    @Setup(Level.Trial)
+    public void setUp() {
+        table = new LatencyPointHistoryTable(0);
+        repository = new PointHistoryRepository(table, new SimpleMeterRegistry());
+        SplittableRandom random = new SplittableRandom(42);
+        int interval = totalRows / TARGET_USER_ROWS;
+        for (int i = 0; i < totalRows; i++) {
+            long userId = i % interval == 0 ? TARGET_USER_ID : 1 + random.nextInt(OTHER_USERS);
+            repository.insert(userId, 100L, TransactionType.CHARGE, i);
+        }
+    }
+
+    @Benchmark
+    public List<PointHistory> indexed() {
+        return repository.selectAllByUserId(TARGET_USER_ID);
+    }
+
+    @Benchmark
+    public List<PointHistory> scanned() {
+        return table.selectAllByUserId(TARGET_USER_ID);
+    }
+}
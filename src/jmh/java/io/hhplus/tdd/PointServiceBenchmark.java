@@ -0,0 +1,110 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointProperties;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PointService 주요 경로(charge, use, getUserPoint, getPointHistory)의 처리량 벤치마크
+ * - distribution : hot(한 사용자 집중) / uniform(N 명 균등) / zipf(편향)
+ * - latencyMicros : 테이블 호출당 고정 지연 (0 이면 순수 CPU/락 비용만 측정)
+ * - engine : locking(사용자 락) / sharded(샤드별 단일 스레드) 잔고 엔진 비교
+ * - ./gradlew jmh 로 실행하며, gc 프로파일러가 bytes/op(gc.alloc.rate.norm)를 함께 기록합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PointServiceBenchmark {
+
+    // 잔고가 최대/최소 한도에 닿지 않도록 충전과 사용을 같은 비율로 섞고, 시작 잔고는 중간값으로 설정
+    private static final long INITIAL_BALANCE = 5_000;
+    private static final long AMOUNT = 100;
+    private static final int HISTORY_PER_USER = 20;
+
+    @Param({"hot", "uniform", "zipf"})
+    public String distribution;
+
+    @Param({"1000"})
+    public int users;
+
+    @Param({"0", "100"})
+    public long latencyMicros;
+
+    @Param({"1.1"})
+    public double zipfExponent;
+
+    @Param({"locking", "sharded"})
+    public String engine;
+
+    private PointService pointService;
+    private UserIdDistribution userIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 데이터 준비는 지연 없이 하고, 측정 직전에 테이블 지연을 설정
+        LatencyUserPointTable userPointTable = new LatencyUserPointTable(0);
+        LatencyPointHistoryTable pointHistoryTable = new LatencyPointHistoryTable(0);
+        PointProperties properties = new PointProperties();
+        properties.getEngine().setType(PointProperties.Engine.Type.valueOf(engine.toUpperCase()));
+        pointService = new PointService(userPointTable, pointHistoryTable, properties, new SimpleMeterRegistry());
+        for (long userId = 1; userId <= users; userId++) {
+            pointService.charge(userId, INITIAL_BALANCE);
+            for (int i = 0; i < HISTORY_PER_USER; i++) {
+                pointService.updateHistory(userId, AMOUNT, i % 2 == 0 ? TransactionType.CHARGE : TransactionType.USE);
+            }
+        }
+        userPointTable.setLatencyMicros(latencyMicros);
+        pointHistoryTable.setLatencyMicros(latencyMicros);
+        userIds = UserIdDistribution.of(distribution, users, zipfExponent);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pointService.close();
+    }
+
+    @Benchmark
+    @Group("balance")
+    @GroupThreads(4)
+    public Object charge() {
+        try {
+            return pointService.charge(userIds.next(), AMOUNT);
+        } catch (IllegalArgumentException e) {
+            return e; // 최대 잔고 초과로 거절된 경우
+        }
+    }
+
+    @Benchmark
+    @Group("balance")
+    @GroupThreads(4)
+    public Object use() {
+        try {
+            pointService.use(userIds.next(), AMOUNT);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e; // 잔고 부족으로 거절된 경우
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UserPoint getUserPoint() {
+        return pointService.getUserPoint(userIds.next());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public List<PointHistory> getPointHistory() {
+        return pointService.getPointHistory(userIds.next());
+    }
+}
@@ -0,0 +1,123 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.PointService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 동시 요청이 몰릴 때 요청 처리 스레드 모델별 최대 동시 처리 요청 수와 p99 지연(스레드를 기다린 시간 포함)을 비교하는 벤치마크
+ * - platform: Tomcat 기본 최대 스레드 수(200개)의 플랫폼 스레드 풀
+ * - virtual: 요청마다 가상 스레드 하나 (spring.threads.virtual.enabled 와 같은 모델, Java 21 이상)
+ *   Java 21 미만에서는 virtual 모드가 실패하므로 -PjavaToolchain=21 로 실행합니다. (예: ./gradlew jmh -PjavaToolchain=21 -PjmhIncludes=ThreadPoolSaturationBenchmark)
+ * - 시간(ms)은 clients 개의 요청을 모두 처리하는 데 걸린 시간이며, maxInFlight / p99Millis 보조 지표를 함께 기록합니다.
+ * - PointService 를 직접 호출하므로 HTTP 와 서블릿 컨테이너 비용은 포함하지 않습니다.
+ * - 요청은 조회 80%, 충전 20% 비율이며, 클라이언트마다 서로 다른 사용자를 사용합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ThreadPoolSaturationBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"1000", "10000"})
+    public int clients;
+
+    /**
+     * 한 번의 측정에서 관찰한 최대 동시 처리 요청 수와 p99 지연
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Saturation {
+        public long maxInFlight;
+        public long p99Millis;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            maxInFlight = 0;
+            p99Millis = 0;
+        }
+    }
+
+    @Benchmark
+    public void burst(Saturation saturation) throws Exception {
+        PointService pointService = new PointService(new UserPointTable(), new PointHistoryTable());
+        ExecutorService executor = newExecutor();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        long[] latencies = new long[clients];
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        long[] startNanos = new long[1];
+
+        for (int i = 0; i < clients; i++) {
+            int client = i;
+            futures.add(executor.submit(() -> {
+                long userId = client + 1;
+                try {
+                    startLatch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    if (client % 5 == 0) {
+                        pointService.charge(userId, 100);
+                    } else {
+                        pointService.getUserPoint(userId);
+                    }
+                } finally {
+                    inFlight.decrementAndGet();
+                    latencies[client] = System.nanoTime() - startNanos[0];
+                }
+            }));
+        }
+
+        // 모든 클라이언트가 같은 시점에 요청을 보낸 것으로 보고, 스레드를 기다린 시간까지 지연에 포함
+        startNanos[0] = System.nanoTime();
+        startLatch.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            pointService.close();
+        }
+
+        Arrays.sort(latencies);
+        saturation.maxInFlight = maxInFlight.get();
+        saturation.p99Millis = TimeUnit.NANOSECONDS.toMillis(latencies[(int) (clients * 0.99) - 1]);
+    }
+
+    // 벤치마크는 Java 17 로도 컴파일되어야 하므로 가상 스레드 실행기는 리플렉션으로 생성
+    private ExecutorService newExecutor() throws ReflectiveOperationException {
+        if ("platform".equals(mode)) {
+            return Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new UnsupportedOperationException("virtual 모드는 Java 21 이상에서 실행해야 합니다. (-PjavaToolchain=21) 현재: "
+                    + Runtime.version(), e);
+        }
+    }
+}
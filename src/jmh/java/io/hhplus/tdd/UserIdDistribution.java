@@ -0,0 +1,57 @@
+package io.hhplus.tdd;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 벤치마크 요청이 어떤 사용자에게 향할지 정하는 분포
+ * - hot : 모든 요청이 한 사용자에게 집중
+ * - uniform : N 명에게 고르게 분산
+ * - zipf : 소수의 사용자에게 요청이 몰리는 편향 분포 (지수 s)
+ */
+public abstract class UserIdDistribution {
+
+    public abstract long next();
+
+    public static UserIdDistribution of(String name, int users, double zipfExponent) {
+        return switch (name) {
+            case "hot" -> new UserIdDistribution() {
+                @Override
+                public long next() {
+                    return 1L;
+                }
+            };
+            case "uniform" -> new UserIdDistribution() {
+                @Override
+                public long next() {
+                    return 1L + ThreadLocalRandom.current().nextInt(users);
+                }
+            };
+            case "zipf" -> new Zipf(users, zipfExponent);
+            default -> throw new IllegalArgumentException("알 수 없는 분포입니다: " + name);
+        };
+    }
+
+    // 순위 k 의 확률이 1/k^s 에 비례하도록 누적 분포를 미리 계산해 두고 이진 탐색으로 추출
+    private static class Zipf extends UserIdDistribution {
+        private final double[] cumulative;
+
+        private Zipf(int users, double exponent) {
+            cumulative = new double[users];
+            double sum = 0;
+            for (int rank = 1; rank <= users; rank++) {
+                sum += 1.0 / Math.pow(rank, exponent);
+                cumulative[rank - 1] = sum;
+            }
+            for (int i = 0; i < users; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        @Override
+        public long next() {
+            int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+            return 1L + (index >= 0 ? index : -index - 1);
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package io.hhplus.tdd;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * PointController 에 HTTP 로 부하를 주는 부하 생성기 (./gradlew loadTest)
+ * - 내장 서버(TddApplication)를 임의 포트로 띄우고 충전/사용/잔고 조회/내역 조회 요청을 정해진 비율로 섞어 보냅니다.
+ * - 요청은 응답을 기다리지 않고 정해진 도착률(open-loop)로 보내며, 지연 시간은 요청을 보냈어야 할 시각부터 잽니다.
+ *   (서버가 느려져도 요청 간격이 늘어나지 않으므로 대기 시간이 지연 시간에 그대로 드러남)
+ * - 사용자는 Zipf 분포로 고릅니다. (지수 0 이면 균등)
+ * - 엔드포인트별 처리량, 상태 코드별 응답 수, 지연 시간 백분위(HdrHistogram)를 출력하고 build/reports/loadtest 에 .hgrm 으로 남깁니다.
+ *
+ * 옵션 (-PloadTestArgs="--rate=500 --duration=60" 처럼 전달, 그 밖의 --point.* 등은 내장 서버 설정으로 전달)
+ * - --rate : 초당 요청 수 (기본 200)
+ * - --duration / --warmup : 측정 시간 / 측정 전 워밍업 시간 (초, 기본 30 / 5)
+ * - --users / --zipf : 사용자 수 / Zipf 지수 (기본 1000 / 1.1)
+ * - --mix : 엔드포인트별 비율 (기본 charge=30,use=20,point=40,history=10)
+ * - --arrival : poisson(지수 분포 간격) / constant(고정 간격) (기본 poisson)
+ * - --async : true 면 /point/async/* 엔드포인트 사용
+ * - --max-in-flight : 응답을 기다리는 최대 요청 수, 넘으면 보내지 않고 dropped 로 셈 (기본 20000)
+ * - --timeout : 요청 타임아웃 (초, 기본 30)
+ * - --url : 지정하면 내장 서버 대신 해당 서버에 요청
+ */
+public class PointLoadTest {
+
+    private static final long INITIAL_BALANCE = 5_000;
+    private static final long AMOUNT = 100;
+    private static final Path REPORT_DIRECTORY = Path.of("build", "reports", "loadtest");
+
+    private final Options options;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final ExecutorService clientExecutor;
+    private final ZipfUsers users;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+
+    private PointLoadTest(Options options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.clientExecutor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+        this.users = new ZipfUsers(options.users, options.zipf);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.url;
+        if (baseUrl == null) {
+            List<String> serverArgs = new ArrayList<>(options.serverArgs);
+            serverArgs.add("--server.port=0");
+            // 요청마다 남는 info 로그가 측정을 방해하지 않도록 (직접 지정하면 그 값을 사용)
+            if (serverArgs.stream().noneMatch(arg -> arg.startsWith("--logging.level.io.hhplus.tdd"))) {
+                serverArgs.add("--logging.level.io.hhplus.tdd=warn");
+            }
+            context = SpringApplication.run(TddApplication.class, serverArgs.toArray(String[]::new));
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        PointLoadTest loadTest = new PointLoadTest(options, baseUrl);
+        try {
+            loadTest.seed();
+            loadTest.run();
+            loadTest.report();
+        } finally {
+            loadTest.clientExecutor.shutdownNow();
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    // 잔고 부족/최대 잔고로 인한 실패가 측정을 가리지 않도록 모든 사용자에게 중간 잔고를 충전
+    private void seed() throws InterruptedException {
+        System.out.printf("사용자 %,d명 초기 잔고 충전 중 (%s)%n", options.users, baseUrl);
+        Semaphore permits = new Semaphore(64);
+        AtomicInteger failures = new AtomicInteger();
+        for (long userId = 1; userId <= options.users; userId++) {
+            permits.acquire();
+            client.sendAsync(request(Endpoint.CHARGE, userId, INITIAL_BALANCE), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null || response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                        permits.release();
+                    });
+        }
+        permits.acquire(64);
+        if (failures.get() > 0) {
+            System.out.printf("초기 충전 실패 %,d건%n", failures.get());
+        }
+    }
+
+    private void run() throws InterruptedException {
+        System.out.printf("부하 시작: %,d req/s (%s), 워밍업 %ds, 측정 %ds, 사용자 %,d명 (zipf %.2f), async=%s%n",
+                options.rate, options.arrival, options.warmupSeconds, options.durationSeconds, options.users, options.zipf, options.async);
+        AtomicInteger inFlight = new AtomicInteger();
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        double meanIntervalNanos = 1e9 / options.rate;
+        double offset = 0;
+        long nextProgress = start + TimeUnit.SECONDS.toNanos(5);
+
+        while (true) {
+            offset += options.arrival == Arrival.POISSON
+                    ? -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos
+                    : meanIntervalNanos;
+            long intended = start + (long) offset;
+            if (intended >= end) {
+                break;
+            }
+            // 목표 시각까지 대기 (늦었으면 기다리지 않고 바로 보내 밀린 요청을 따라잡음)
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Endpoint endpoint = options.pick();
+            boolean measured = intended >= measureFrom;
+            EndpointStats endpointStats = stats.get(endpoint);
+            if (inFlight.get() >= options.maxInFlight) {
+                if (measured) {
+                    endpointStats.dropped.increment();
+                }
+                continue;
+            }
+            inFlight.incrementAndGet();
+            client.sendAsync(request(endpoint, users.next(), AMOUNT), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.decrementAndGet();
+                        if (measured) {
+                            endpointStats.record(System.nanoTime() - intended, error == null ? response.statusCode() : -1);
+                        }
+                    });
+
+            long now = System.nanoTime();
+            if (now >= nextProgress) {
+                System.out.printf("  %3ds 경과, 응답 대기 %,d건%n", TimeUnit.NANOSECONDS.toSeconds(now - start), inFlight.get());
+                nextProgress += TimeUnit.SECONDS.toNanos(5);
+            }
+        }
+
+        // 남은 응답을 타임아웃까지 기다림
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.timeoutSeconds);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+    }
+
+    private void report() throws IOException {
+        Files.createDirectories(REPORT_DIRECTORY);
+        System.out.println();
+        System.out.printf("%-8s %9s %9s %9s %9s %9s %9s %9s %9s  %s%n",
+                "endpoint", "count", "req/s", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)", "dropped", "status");
+        Histogram total = new Histogram(3);
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().latency.getIntervalHistogram();
+            total.add(histogram);
+            print(entry.getKey().name().toLowerCase(), histogram, entry.getValue());
+            try (PrintStream out = new PrintStream(Files.newOutputStream(REPORT_DIRECTORY.resolve(entry.getKey().name().toLowerCase() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        print("total", total, null);
+        System.out.println("백분위 분포(.hgrm): " + REPORT_DIRECTORY.toAbsolutePath());
+    }
+
+    private void print(String name, Histogram histogram, EndpointStats endpointStats) {
+        System.out.printf("%-8s %,9d %,9.1f %9.1f %9.1f %9.1f %9.1f %9.1f %9s  %s%n",
+                name,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / (double) options.durationSeconds,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0,
+                endpointStats == null ? "" : String.format("%,d", endpointStats.dropped.sum()),
+                endpointStats == null ? "" : endpointStats.statuses());
+    }
+
+    private HttpRequest request(Endpoint endpoint, long userId, long amount) {
+        String prefix = options.async ? "/point/async/" : "/point/";
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .timeout(Duration.ofSeconds(options.timeoutSeconds))
+                .header("Content-Type", "application/json");
+        return switch (endpoint) {
+            case CHARGE -> builder.uri(URI.create(baseUrl + prefix + userId + "/charge"))
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(String.valueOf(amount))).build();
+            case USE -> builder.uri(URI.create(baseUrl + prefix + userId + "/use"))
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(String.valueOf(amount))).build();
+            case POINT -> builder.uri(URI.create(baseUrl + prefix + userId)).GET().build();
+            case HISTORY -> builder.uri(URI.create(baseUrl + prefix + userId + "/histories")).GET().build();
+        };
+    }
+
+    private enum Endpoint {
+        CHARGE, USE, POINT, HISTORY
+    }
+
+    private enum Arrival {
+        POISSON, CONSTANT
+    }
+
+    // 엔드포인트별 지연 시간(마이크로초)과 상태 코드별 응답 수 (-1 은 연결 실패/타임아웃)
+    private static class EndpointStats {
+        private final Recorder latency = new Recorder(3);
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final LongAdder dropped = new LongAdder();
+
+        private void record(long latencyNanos, int status) {
+            latency.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+            statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+
+        private String statuses() {
+            Map<Integer, Long> sorted = new TreeMap<>();
+            statuses.forEach((status, count) -> sorted.put(status, count.sum()));
+            return sorted.toString();
+        }
+    }
+
+    // 순위 k 의 사용자가 1/k^s 에 비례하는 확률로 뽑히도록 누적 분포를 미리 계산해 두고 이진 탐색으로 추출
+    private static class ZipfUsers {
+        private final double[] cumulative;
+
+        private ZipfUsers(int users, double exponent) {
+            cumulative = new double[users];
+            double sum = 0;
+            for (int k = 1; k <= users; k++) {
+                sum += 1 / Math.pow(k, exponent);
+                cumulative[k - 1] = sum;
+            }
+            for (int i = 0; i < users; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        private long next() {
+            int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+            return (index >= 0 ? index : -index - 1) + 1L;
+        }
+    }
+
+    private static class Options {
+        private int rate = 200;
+        private int durationSeconds = 30;
+        private int warmupSeconds = 5;
+        private int users = 1000;
+        private double zipf = 1.1;
+        private Arrival arrival = Arrival.POISSON;
+        private boolean async;
+        private int maxInFlight = 20_000;
+        private int timeoutSeconds = 30;
+        private String url;
+        private final Map<Endpoint, Integer> mix = new LinkedHashMap<>();
+        private final List<String> serverArgs = new ArrayList<>();
+        private int mixTotal;
+
+        private static Options parse(String[] args) {
+            Options options = new Options();
+            options.setMix("charge=30,use=20,point=40,history=10");
+            for (String arg : args) {
+                if (arg.isBlank()) {
+                    continue;
+                }
+                int separator = arg.indexOf('=');
+                if (!arg.startsWith("--") || separator < 0) {
+                    throw new IllegalArgumentException("옵션은 --이름=값 형식이어야 합니다: " + arg);
+                }
+                String name = arg.substring(2, separator);
+                String value = arg.substring(separator + 1);
+                switch (name) {
+                    case "rate" -> options.rate = Integer.parseInt(value);
+                    case "duration" -> options.durationSeconds = Integer.parseInt(value);
+                    case "warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                    case "users" -> options.users = Integer.parseInt(value);
+                    case "zipf" -> options.zipf = Double.parseDouble(value);
+                    case "arrival" -> options.arrival = Arrival.valueOf(value.toUpperCase());
+                    case "async" -> options.async = Boolean.parseBoolean(value);
+                    case "max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                    case "timeout" -> options.timeoutSeconds = Integer.parseInt(value);
+                    case "url" -> options.url = value;
+                    case "mix" -> options.setMix(value);
+                    default -> options.serverArgs.add(arg);
+                }
+            }
+            if (options.rate <= 0 || options.durationSeconds <= 0 || options.users <= 0) {
+                throw new IllegalArgumentException("rate, duration, users 는 0보다 커야 합니다.");
+            }
+            return options;
+        }
+
+        private void setMix(String value) {
+            mix.clear();
+            mixTotal = 0;
+            for (String part : value.split(",")) {
+                String[] weight = part.split("=");
+                int share = Integer.parseInt(weight[1].trim());
+                mix.put(Endpoint.valueOf(weight[0].trim().toUpperCase()), share);
+                mixTotal += share;
+            }
+            if (mixTotal <= 0) {
+                throw new IllegalArgumentException("요청 비율의 합은 0보다 커야 합니다: " + value);
+            }
+        }
+
+        private Endpoint pick() {
+            int ticket = ThreadLocalRandom.current().nextInt(mixTotal);
+            for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+                ticket -= entry.getValue();
+                if (ticket < 0) {
+                    return entry.getKey();
+                }
+            }
+            throw new IllegalStateException();
+        }
+    }
+}
@@ -1,14 +1,38 @@
 package io.hhplus.tdd;
 
+import io.hhplus.tdd.point.PointOverloadedException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
 @RestControllerAdvice
 class ApiControllerAdvice extends ResponseEntityExceptionHandler {
     @ExceptionHandler(value = Exception.class)
     public ResponseEntity<ErrorResponse> handleException(Exception e) {
         return ResponseEntity.status(500).body(new ErrorResponse("500", "에러가 발생했습니다."));
     }
+
+    // 잘못된 입력 (금액, 사용자 ID, 조회 조건 등의 검증 실패)
+    @ExceptionHandler(value = IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(400).body(new ErrorResponse("400", e.getMessage()));
+    }
+
+    // 비동기 API 의 마감 시간 초과 또는 작업 스레드 풀 포화
+    @ExceptionHandler(value = {TimeoutException.class, RejectedExecutionException.class})
+    public ResponseEntity<ErrorResponse> handleUnavailable(Exception e) {
+        return ResponseEntity.status(503).body(new ErrorResponse("503", "요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요."));
+    }
+
+    // 한 사용자에게 요청이 몰려 락 대기열에 줄 세우지 않고 바로 거절
+    @ExceptionHandler(value = PointOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleOverloaded(PointOverloadedException e) {
+        return ResponseEntity.status(429)
+                .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse("429", e.getMessage()));
+    }
 }
@@ -0,0 +1,229 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * UserPointTable 앞단의 잔고 영속화 계층 (스냅샷 + write-ahead log)
+ * - 잔고 저장은 WAL 에 변경 후 잔고를 먼저 기록하고 fsync 정책에 따라 디스크 반영을 기다린 뒤, 테이블과 메모리의 잔고를 갱신합니다.
+ *   테이블 저장이 실패하면 이전 잔고를 WAL 에 다시 기록해, 실패한 변경이 복구 때 되살아나지 않게 합니다.
+ * - 일정 주기와 종료 시점에 전체 잔고를 바이너리 스냅샷으로 남기고, 스냅샷에 포함된 WAL 파일은 삭제합니다.
+ * - 시작 시 가장 최근 스냅샷을 읽고 그 이후의 WAL 만 재생해 잔고를 복구합니다.
+ * - 복구한 잔고는 테이블에 다시 쓰지 않고 이 계층이 보관하며, 조회 시 테이블보다 먼저 확인합니다.
+ */
+public class DurableUserPointStore implements UserPointRepository, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DurableUserPointStore.class);
+
+    private static final long SNAPSHOT_MAGIC = 0x504F494E54534E50L;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private final UserPointTable userPointTable;
+    private final Path directory;
+
+    // 기록되었거나 복구된 모든 사용자의 최신 잔고
+    private final LongBalanceMap balances = new LongBalanceMap();
+
+    // 스냅샷 기준 lsn 을 정하는 동안 WAL 기록과 잔고 갱신이 끼어들지 않도록 하는 락
+    private final ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+    private UserPointWal wal;
+    private ScheduledExecutorService snapshotScheduler;
+
+    private DurableUserPointStore(UserPointTable userPointTable, Path directory) {
+        this.userPointTable = userPointTable;
+        this.directory = directory;
+    }
+
+    public static DurableUserPointStore open(UserPointTable userPointTable, Path directory, UserPointWal.FsyncPolicy fsyncPolicy,
+                                             long fsyncIntervalMillis, long snapshotIntervalMillis) {
+        DurableUserPointStore store = new DurableUserPointStore(userPointTable, directory);
+        long start = System.nanoTime();
+        long snapshotLsn = store.loadLatestSnapshot();
+        int snapshotUsers = store.balances.size();
+        long[] replayed = {0};
+        store.wal = UserPointWal.open(directory, fsyncPolicy, fsyncIntervalMillis, snapshotLsn, (lsn, userId, balance, updateMillis) -> {
+            store.balances.put(userId, balance, updateMillis);
+            replayed[0]++;
+        });
+        log.info("잔고 복구 완료: 스냅샷 {}명(lsn {}), WAL {}건 재생, {}ms",
+                snapshotUsers, snapshotLsn, replayed[0], TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        if (snapshotIntervalMillis > 0) {
+            store.snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "user-point-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            store.snapshotScheduler.scheduleWithFixedDelay(store::snapshotQuietly, snapshotIntervalMillis, snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        return store;
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        UserPoint userPoint = balances.get(id);
+        return userPoint != null ? userPoint : userPointTable.selectById(id);
+    }
+
+    // 같은 사용자에 대한 저장은 호출자(사용자 락, 잔고 저장 작업 스레드)가 순서를 보장
+    // WAL 기록부터 잔고 갱신까지 스냅샷이 끼어들면 기준 lsn 이전 기록이 스냅샷에 빠진 채 삭제되므로 전체를 읽기 락 안에서 처리
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        snapshotLock.readLock().lock();
+        try {
+            long updateMillis = System.currentTimeMillis();
+            wal.awaitDurable(wal.append(id, amount, updateMillis));
+            UserPoint written;
+            try {
+                written = userPointTable.insertOrUpdate(id, amount);
+            } catch (RuntimeException e) {
+                revert(id);
+                throw e;
+            }
+            if (written == null) {
+                revert(id);
+                return null;
+            }
+            balances.put(id, amount, updateMillis);
+            return new UserPoint(id, amount, updateMillis);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    // 테이블에 반영되지 못한 변경을 되돌리도록 이전 잔고를 WAL 에 기록 (실패한 경우에만 테이블을 다시 조회)
+    private void revert(long id) {
+        UserPoint previous = balances.get(id);
+        if (previous == null) {
+            previous = userPointTable.selectById(id);
+        }
+        wal.awaitDurable(wal.append(id, previous.point(), previous.updateMillis()));
+    }
+
+    // 전체 잔고 스냅샷을 남기고 스냅샷에 포함된 WAL 파일을 삭제
+    // 기준 lsn 이후에 바뀐 잔고가 스냅샷에 섞여도, 그 변경은 기준 lsn 이후의 WAL 로 다시 재생되므로 결과는 같음
+    public synchronized long snapshot() {
+        long snapshotLsn;
+        snapshotLock.writeLock().lock();
+        try {
+            snapshotLsn = wal.roll();
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+
+        List<UserPoint> userPoints = new ArrayList<>(balances.size());
+        balances.forEach((id, point, updateMillis) -> userPoints.add(new UserPoint(id, point, updateMillis)));
+        Path target = snapshotPath(snapshotLsn);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeLong(SNAPSHOT_MAGIC);
+                out.writeLong(snapshotLsn);
+                out.writeInt(userPoints.size());
+                for (UserPoint userPoint : userPoints) {
+                    out.writeLong(userPoint.id());
+                    out.writeLong(userPoint.point());
+                    out.writeLong(userPoint.updateMillis());
+                }
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            // 다 쓴 뒤에 이름을 바꿔, 쓰다 만 스냅샷을 복구에 사용하지 않도록 함
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            for (Path snapshot : snapshots()) {
+                if (!snapshot.equals(target)) {
+                    Files.delete(snapshot);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        wal.deleteUpTo(snapshotLsn);
+        return snapshotLsn;
+    }
+
+    public int size() {
+        return balances.size();
+    }
+
+    // 종료 시 마지막 스냅샷을 남겨 다음 시작 때 재생할 WAL 이 없도록 함
+    @Override
+    public void close() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdown();
+        }
+        snapshot();
+        wal.close();
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            log.error("잔고 스냅샷 실패", e);
+        }
+    }
+
+    // 가장 최근 스냅샷을 읽고 그 기준 lsn 을 반환 (없으면 0)
+    private long loadLatestSnapshot() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> snapshots = snapshots();
+            if (snapshots.isEmpty()) {
+                return 0;
+            }
+            Path latest = snapshots.get(snapshots.size() - 1);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(latest), 1 << 16))) {
+                if (in.readLong() != SNAPSHOT_MAGIC) {
+                    throw new IllegalStateException("잔고 스냅샷 형식이 올바르지 않습니다: " + latest);
+                }
+                long snapshotLsn = in.readLong();
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    balances.put(in.readLong(), in.readLong(), in.readLong());
+                }
+                return snapshotLsn;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path snapshotPath(long lsn) {
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, lsn, SNAPSHOT_SUFFIX));
+    }
+}
@@ -0,0 +1,296 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongPredicate;
+
+/**
+ * long 사용자 ID 를 키로 잔고와 수정 시각을 보관하는 오픈 어드레싱 해시 맵
+ * - 키, 잔고, 수정 시각을 각각의 long 배열에 나눠 담아 항목마다 노드나 Long 객체를 만들지 않습니다.
+ * - 충돌은 선형 탐사로 해결하고, 항목 수가 용량의 3/4 을 넘으면 두 배 크기의 배열로 옮깁니다.
+ * - 쓰기는 한 번에 한 스레드만 하고, 읽기는 락 없이 낙관적으로 읽은 뒤 그 사이 쓰기가 있었을 때만 읽기 락으로 다시 읽습니다.
+ * - 크기 조정은 새 배열을 따로 채운 뒤 교체하므로, 옮기는 동안에도 읽기는 기존 배열에서 막힘 없이 진행됩니다.
+ * - 삭제는 뒤따르는 항목을 앞으로 당겨(backward shift) 삭제 표시 없이 탐사 경로를 유지합니다.
+ */
+public class LongBalanceMap {
+
+    // 빈 칸 표시 (이 값은 사용자 ID 로 사용할 수 없음)
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private volatile Table table;
+
+    // 쓰기는 this 로 보호하고, 읽기는 락 없이
+    private volatile int size;
+
+    // trimTo 가 다음에 확인할 칸 (this 로 보호)
+    private int trimHand;
+
+    public LongBalanceMap() {
+        this(16);
+    }
+
+    public LongBalanceMap(int expectedSize) {
+        this.table = new Table(capacityFor(expectedSize));
+    }
+
+    // 잔고를 반환하고, 없으면 missing 반환 (객체를 만들지 않음)
+    public long point(long id, long missing) {
+        Table current = table;
+        long stamp = current.lock.tryOptimisticRead();
+        int slot = current.slotOf(id);
+        long point = slot < 0 ? missing : current.points[slot];
+        if (current.lock.validate(stamp)) {
+            return point;
+        }
+        stamp = current.lock.readLock();
+        try {
+            slot = current.slotOf(id);
+            return slot < 0 ? missing : current.points[slot];
+        } finally {
+            current.lock.unlockRead(stamp);
+        }
+    }
+
+    // 잔고와 수정 시각을 같은 시점의 값으로 읽어 UserPoint 로 반환 (없으면 null)
+    public UserPoint get(long id) {
+        Table current = table;
+        long stamp = current.lock.tryOptimisticRead();
+        int slot = current.slotOf(id);
+        long point = slot < 0 ? 0 : current.points[slot];
+        long updateMillis = slot < 0 ? 0 : current.updateMillis[slot];
+        if (!current.lock.validate(stamp)) {
+            stamp = current.lock.readLock();
+            try {
+                slot = current.slotOf(id);
+                point = slot < 0 ? 0 : current.points[slot];
+                updateMillis = slot < 0 ? 0 : current.updateMillis[slot];
+            } finally {
+                current.lock.unlockRead(stamp);
+            }
+        }
+        return slot < 0 ? null : new UserPoint(id, point, updateMillis);
+    }
+
+    public synchronized void put(long id, long point, long updateMillis) {
+        put(id, point, updateMillis, true);
+    }
+
+    // 키가 없을 때만 저장하고, 저장했으면 true 반환
+    public synchronized boolean putIfAbsent(long id, long point, long updateMillis) {
+        return put(id, point, updateMillis, false);
+    }
+
+    // 항목을 지우고, 지웠으면 true 반환
+    public synchronized boolean remove(long id) {
+        Table current = table;
+        int slot = current.slotOf(id);
+        if (slot < 0) {
+            return false;
+        }
+        current.remove(slot);
+        size--;
+        return true;
+    }
+
+    // 항목 수가 targetSize 이하가 될 때까지 retain 이 false 인 항목을 지우고, 지운 항목 수 반환
+    // 지난번에 멈춘 칸부터 이어서 훑으므로 (clock) 매번 같은 앞쪽 칸의 항목만 지우지 않음
+    public synchronized int trimTo(int targetSize, LongPredicate retain) {
+        Table current = table;
+        int removed = 0;
+        // 지운 칸은 다시 확인하므로 바늘이 한 바퀴 돌 때까지만 진행
+        for (int visited = 0; visited <= current.mask && size > targetSize; ) {
+            int slot = trimHand & current.mask;
+            long key = current.keys[slot];
+            if (key != EMPTY && !retain.test(key)) {
+                // 뒤의 항목이 이 칸으로 당겨질 수 있으므로 바늘을 옮기지 않고 같은 칸을 다시 확인
+                current.remove(slot);
+                size--;
+                removed++;
+                continue;
+            }
+            trimHand = slot + 1;
+            visited++;
+        }
+        return removed;
+    }
+
+    // 모든 항목을 방문 (항목마다 잔고와 수정 시각은 같은 시점의 값이며, 방문 중의 쓰기는 반영되지 않을 수 있음)
+    public void forEach(Visitor visitor) {
+        Table current = table;
+        for (int i = 0; i < current.keys.length; i++) {
+            long stamp = current.lock.tryOptimisticRead();
+            long key = current.keys[i];
+            long point = current.points[i];
+            long updateMillis = current.updateMillis[i];
+            if (!current.lock.validate(stamp)) {
+                stamp = current.lock.readLock();
+                try {
+                    key = current.keys[i];
+                    point = current.points[i];
+                    updateMillis = current.updateMillis[i];
+                } finally {
+                    current.lock.unlockRead(stamp);
+                }
+            }
+            if (key != EMPTY) {
+                visitor.accept(key, point, updateMillis);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private boolean put(long id, long point, long updateMillis, boolean overwrite) {
+        checkKey(id);
+        Table current = table;
+        int slot = current.slotOf(id);
+        if (slot >= 0) {
+            if (overwrite) {
+                current.write(slot, id, point, updateMillis);
+            }
+            return overwrite;
+        }
+        if (size + 1 > current.threshold) {
+            current = resize(current);
+        }
+        current.write(current.freeSlotOf(id), id, point, updateMillis);
+        size++;
+        return true;
+    }
+
+    private static void checkKey(long id) {
+        if (id == EMPTY) {
+            throw new IllegalArgumentException("사용할 수 없는 사용자 ID 입니다: " + id);
+        }
+    }
+
+    // 새 배열을 다 채운 뒤 교체하므로 그 사이 읽기는 기존 배열을 그대로 사용
+    private Table resize(Table current) {
+        if (current.keys.length == MAX_CAPACITY) {
+            throw new IllegalStateException("잔고 맵의 최대 용량을 넘었습니다: " + size);
+        }
+        Table resized = new Table(current.keys.length << 1);
+        for (int i = 0; i < current.keys.length; i++) {
+            long key = current.keys[i];
+            if (key != EMPTY) {
+                int slot = resized.freeSlotOf(key);
+                resized.keys[slot] = key;
+                resized.points[slot] = current.points[i];
+                resized.updateMillis[slot] = current.updateMillis[i];
+            }
+        }
+        table = resized;
+        return resized;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity < MAX_CAPACITY && capacity - (capacity >> 2) < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    // 연속된 사용자 ID 가 한쪽에 몰리지 않도록 비트를 섞음
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Table {
+        private final long[] keys;
+        private final long[] points;
+        private final long[] updateMillis;
+        private final int mask;
+        private final int threshold;
+
+        // 같은 칸의 잔고와 수정 시각을 함께 읽도록 하는 락 (쓰기는 맵의 모니터 안에서만)
+        private final StampedLock lock = new StampedLock();
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            this.points = new long[capacity];
+            this.updateMillis = new long[capacity];
+            this.mask = capacity - 1;
+            this.threshold = capacity - (capacity >> 2);
+        }
+
+        // 키가 있는 칸의 위치, 없으면 -1
+        // 낙관적 읽기 중에는 배열이 바뀔 수 있으므로 탐사 횟수를 용량으로 제한
+        private int slotOf(long id) {
+            int slot = hash(id) & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                long key = keys[slot];
+                if (key == id) {
+                    return slot;
+                }
+                if (key == EMPTY) {
+                    return -1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        // 키가 들어갈 빈 칸의 위치 (쓰기 스레드만 호출하며, 빈 칸은 항상 있음)
+        private int freeSlotOf(long id) {
+            int slot = hash(id) & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        // 칸을 비우고, 이 칸을 지나야 닿던 뒤의 항목들을 앞으로 당김 (한 번의 쓰기 락 안에서 처리하므로 낙관적 읽기는 다시 읽음)
+        private void remove(int slot) {
+            long stamp = lock.writeLock();
+            try {
+                int hole = slot;
+                int next = slot;
+                while (true) {
+                    next = (next + 1) & mask;
+                    long key = keys[next];
+                    if (key == EMPTY) {
+                        break;
+                    }
+                    // 원래 칸에서 next 까지의 거리가 빈 칸에서 next 까지의 거리 이상이면 빈 칸으로 옮겨도 찾을 수 있음
+                    int home = hash(key) & mask;
+                    if (((next - home) & mask) >= ((next - hole) & mask)) {
+                        keys[hole] = key;
+                        points[hole] = points[next];
+                        updateMillis[hole] = updateMillis[next];
+                        hole = next;
+                    }
+                }
+                keys[hole] = EMPTY;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void write(int slot, long id, long point, long millis) {
+            long stamp = lock.writeLock();
+            try {
+                points[slot] = point;
+                updateMillis[slot] = millis;
+                keys[slot] = id;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * forEach 에서 항목 하나를 전달받는 콜백
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        void accept(long id, long point, long updateMillis);
+    }
+}
@@ -0,0 +1,227 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongFunction;
+
+/**
+ * 포인트 내역을 요청 스레드 대신 백그라운드 작업 스레드가 기록하는 write-behind 저널
+ * - 사용자 ID 로 작업 스레드를 고정해 같은 사용자의 내역은 요청 순서대로 기록됩니다.
+ * - 대기열이 가득 차면 지정된 시간만큼 기다린 뒤 예외를 던져 호출자에게 부하를 전달합니다.
+ * - close() 는 새 요청을 막고 대기 중인 내역을 모두 기록한 뒤 종료합니다.
+ *   (append 는 읽기 잠금, close 는 쓰기 잠금을 잡아 종료 뒤에 대기열에 들어가는 내역이 없습니다.)
+ */
+public class PointHistoryJournal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PointHistoryJournal.class);
+
+    private final PointHistoryRepository pointHistoryRepository;
+    private final List<BlockingQueue<Entry>> partitions = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final long offerTimeoutMillis;
+
+    // 아직 기록되지 않은 사용자별 내역 (read-your-writes 조회용)
+    private final ConcurrentHashMap<Long, ArrayDeque<Entry>> pendingByUser = new ConcurrentHashMap<>();
+
+    private final LongAdder failures = new LongAdder();
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+
+    public PointHistoryJournal(PointHistoryRepository pointHistoryRepository, int capacity, int workerCount, long offerTimeoutMillis) {
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        int partitionCapacity = Math.max(1, capacity / workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(partitionCapacity);
+            Thread worker = new Thread(() -> drain(queue), "point-history-journal-" + i);
+            worker.setDaemon(true);
+            partitions.add(queue);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    // 내역을 대기열에 넣고, 아직 id 가 부여되지 않은(id = 0) 내역을 반환
+    public PointHistory append(long userId, long amount, TransactionType type, long updateMillis) {
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("포인트 내역 저널이 종료되었습니다.");
+            }
+            return enqueue(userId, amount, type, updateMillis);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    private PointHistory enqueue(long userId, long amount, TransactionType type, long updateMillis) {
+        Entry entry = new Entry(new PointHistory(0, userId, amount, type, updateMillis));
+        // 작업 스레드가 먼저 기록을 끝내도 대기 목록에서 빠질 수 있도록 대기열보다 먼저 등록
+        pendingByUser.compute(userId, (id, entries) -> {
+            ArrayDeque<Entry> pending = entries == null ? new ArrayDeque<>() : entries;
+            pending.add(entry);
+            return pending;
+        });
+
+        boolean accepted;
+        try {
+            accepted = partitionOf(userId).offer(entry, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            // 조회 중인 스레드가 이 내역을 기록된 것처럼 기다리지 않도록 빈 결과로 끝냄
+            entry.started = true;
+            entry.result.complete(null);
+            removePending(entry);
+            throw new IllegalStateException("포인트 내역 기록 대기열이 가득 찼습니다.");
+        }
+        return entry.requested;
+    }
+
+    // 기록된 내역 뒤에 아직 기록되지 않은 내역을 이어 붙여 반환
+    // 대기 목록을 먼저 읽어야 그 사이 기록이 끝난 내역도 누락되지 않음
+    // 기록이 시작된 내역은 테이블에 보였는지 알 수 없으므로 기록이 끝나기를 기다린 뒤 id 로 중복을 거름
+    public List<PointHistory> withPending(long userId, LongFunction<List<PointHistory>> persistedReader) {
+        List<Entry> pending = new ArrayList<>();
+        pendingByUser.computeIfPresent(userId, (id, entries) -> {
+            pending.addAll(entries);
+            return entries;
+        });
+        List<PointHistory> persisted = persistedReader.apply(userId);
+        if (pending.isEmpty()) {
+            return persisted;
+        }
+
+        Set<Long> persistedIds = new HashSet<>();
+        for (PointHistory pointHistory : persisted) {
+            persistedIds.add(pointHistory.id());
+        }
+        List<PointHistory> merged = new ArrayList<>(persisted);
+        for (Entry entry : pending) {
+            // 기록 조회가 끝난 뒤에도 시작되지 않았다면 조회 결과에 있을 수 없음
+            if (!entry.started) {
+                merged.add(entry.requested);
+                continue;
+            }
+            PointHistory written = entry.result.join();
+            if (written != null && !persistedIds.contains(written.id())) {
+                merged.add(written);
+            }
+        }
+        return merged;
+    }
+
+    // 아직 기록되지 않은 내역 수
+    public int pendingCount() {
+        int count = 0;
+        for (BlockingQueue<Entry> queue : partitions) {
+            count += queue.size();
+        }
+        return count;
+    }
+
+    public long failureCount() {
+        return failures.sum();
+    }
+
+    @Override
+    public void close() {
+        // 진행 중인 append 가 대기열에 넣기를 마친 뒤에 종료 표시
+        closeLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        // 종료 직전에 들어온 내역은 작업 스레드가 이미 끝났을 수 있으므로 호출 스레드에서 마저 기록
+        for (BlockingQueue<Entry> queue : partitions) {
+            Entry entry;
+            while ((entry = queue.poll()) != null) {
+                write(entry);
+            }
+        }
+    }
+
+    private BlockingQueue<Entry> partitionOf(long userId) {
+        return partitions.get(Math.floorMod(Long.hashCode(userId), partitions.size()));
+    }
+
+    // 종료 요청 후에도 대기열이 빌 때까지 계속 기록
+    private void drain(BlockingQueue<Entry> queue) {
+        while (!closed || !queue.isEmpty()) {
+            Entry entry;
+            try {
+                entry = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                if (closed) {
+                    continue;
+                }
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (entry != null) {
+                write(entry);
+            }
+        }
+    }
+
+    private void write(Entry entry) {
+        PointHistory requested = entry.requested;
+        PointHistory written = null;
+        // 테이블에 보이기 전에 기록 시작을 알림
+        entry.started = true;
+        try {
+            written = pointHistoryRepository.insert(requested.userId(), requested.amount(), requested.type(), requested.updateMillis());
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.error("포인트 내역 기록 실패: {}", requested, e);
+        } finally {
+            entry.result.complete(written);
+            removePending(entry);
+        }
+    }
+
+    private void removePending(Entry entry) {
+        pendingByUser.computeIfPresent(entry.requested.userId(), (id, entries) -> {
+            entries.remove(entry);
+            return entries.isEmpty() ? null : entries;
+        });
+    }
+
+    private static class Entry {
+        private final PointHistory requested;
+        // 기록 결과 (실패하거나 대기열에 들어가지 못하면 null)
+        private final CompletableFuture<PointHistory> result = new CompletableFuture<>();
+        private volatile boolean started;
+
+        private Entry(PointHistory requested) {
+            this.requested = requested;
+        }
+    }
+}
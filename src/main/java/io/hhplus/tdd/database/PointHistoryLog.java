@@ -0,0 +1,247 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 포인트 내역을 고정 길이 바이너리 레코드로 기록하는 메모리 매핑 추가 전용 로그
+ * - 레코드는 id, userId, amount, updateMillis(각 8바이트)와 type(1바이트)을 40바이트에 담습니다.
+ * - 세그먼트 파일을 미리 정해진 크기로 매핑해 두고 매핑된 메모리에 직접 쓰므로, 추가 시 별도 버퍼 복사나 write 호출이 없습니다.
+ * - 세그먼트가 가득 차면 다음 번호의 세그먼트 파일을 새로 만듭니다.
+ *   세그먼트 번호는 파일 이름에서, 세그먼트 크기는 파일 크기에서 읽으므로 앞 세그먼트가 지워졌거나 설정이 바뀌어도 이어 씁니다.
+ * - type 칸을 마지막에 써서 레코드 완료 표시로 사용하며, 재생(replay)은 type 이 0 인 첫 레코드에서 멈춥니다.
+ * - open() 은 세그먼트를 읽지 않고, 첫 replay 가 재생하면서 마지막 id 와 쓰기 위치도 함께 복구합니다.
+ *   (replay 전에 쓰거나 조회하면 그때 한 번 읽어 복구)
+ */
+public class PointHistoryLog implements AutoCloseable {
+
+    // 레코드 크기와 필드 위치 (8바이트 정렬)
+    static final int RECORD_BYTES = 40;
+    private static final int ID = 0;
+    private static final int USER_ID = 8;
+    private static final int AMOUNT = 16;
+    private static final int UPDATE_MILLIS = 24;
+    private static final int TYPE = 32;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final Path directory;
+    private final int segmentRecords;
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int segmentNumber;
+    private int segmentCapacity;
+    private int position;
+    private boolean recovered;
+
+    private long lastId;
+    private long count;
+
+    private PointHistoryLog(Path directory, int segmentRecords) {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+    }
+
+    // 디렉터리만 준비하고, 기존 세그먼트는 첫 replay 에서 읽는다
+    public static PointHistoryLog open(Path directory, int segmentRecords) {
+        if (segmentRecords <= 0) {
+            throw new IllegalArgumentException("세그먼트 레코드 수는 0보다 커야 합니다: " + segmentRecords);
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new PointHistoryLog(directory, segmentRecords);
+    }
+
+    public synchronized void append(PointHistory pointHistory) {
+        append(pointHistory.id(), pointHistory.userId(), pointHistory.amount(), pointHistory.type(), pointHistory.updateMillis());
+    }
+
+    public synchronized void append(long id, long userId, long amount, TransactionType type, long updateMillis) {
+        ensureRecovered();
+        if (position == segmentCapacity) {
+            roll();
+        }
+        int offset = position * RECORD_BYTES;
+        segment.putLong(offset + ID, id);
+        segment.putLong(offset + USER_ID, userId);
+        segment.putLong(offset + AMOUNT, amount);
+        segment.putLong(offset + UPDATE_MILLIS, updateMillis);
+        // 나머지 필드를 모두 쓴 뒤 type 을 써야 재생 시 반쯤 쓰인 레코드를 읽지 않음
+        segment.put(offset + TYPE, (byte) (type.ordinal() + 1));
+        position++;
+        lastId = Math.max(lastId, id);
+        count++;
+    }
+
+    // 모든 세그먼트의 레코드를 기록된 순서대로 읽음 (레코드마다 객체를 만들지 않음)
+    // 아직 복구하지 않았다면 같은 읽기에서 복구까지 마쳐 세그먼트를 한 번만 읽음
+    public void replay(Visitor visitor) {
+        synchronized (this) {
+            if (!recovered) {
+                recover(visitor);
+                return;
+            }
+        }
+        try {
+            for (Path path : segments()) {
+                scan(path, visitor);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized long lastId() {
+        ensureRecovered();
+        return lastId;
+    }
+
+    public synchronized long count() {
+        ensureRecovered();
+        return count;
+    }
+
+    // 현재 세그먼트에 쓴 내용을 디스크에 반영
+    public synchronized void force() {
+        if (recovered) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!recovered) {
+            return;
+        }
+        try {
+            segment.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void ensureRecovered() {
+        if (!recovered) {
+            recover((id, userId, amount, type, updateMillis) -> {
+            });
+        }
+    }
+
+    // 기존 세그먼트를 끝까지 읽어 레코드를 전달하면서 마지막 id 와 쓰기 위치를 복구하고, 마지막 세그먼트를 이어 쓰도록 연다
+    private void recover(Visitor visitor) {
+        try {
+            List<Path> segments = segments();
+            int lastSegmentRecords = 0;
+            for (Path path : segments) {
+                lastSegmentRecords = scan(path, (id, userId, amount, type, updateMillis) -> {
+                    lastId = Math.max(lastId, id);
+                    count++;
+                    visitor.accept(id, userId, amount, type, updateMillis);
+                });
+            }
+            if (segments.isEmpty()) {
+                map(0, 0, segmentRecords);
+            } else {
+                // 마지막 세그먼트는 만들 때의 크기로 이어 씀 (지금 설정으로 매핑하면 기록된 위치가 범위를 벗어날 수 있음)
+                Path last = segments.get(segments.size() - 1);
+                long fileRecords = Files.size(last) / RECORD_BYTES;
+                map(segmentNumberOf(last), lastSegmentRecords, fileRecords > 0 ? (int) fileRecords : segmentRecords);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        recovered = true;
+    }
+
+    private void roll() {
+        try {
+            segment.force();
+            channel.close();
+            map(segmentNumber + 1, 0, segmentRecords);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void map(int number, int recordsWritten, int capacity) throws IOException {
+        channel = FileChannel.open(segmentPath(number), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_BYTES);
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        segmentNumber = number;
+        segmentCapacity = capacity;
+        position = recordsWritten;
+    }
+
+    // 세그먼트 파일을 이름의 번호 순서로 정렬
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(PointHistoryLog::isSegment)
+                    .sorted(Comparator.comparingInt(PointHistoryLog::segmentNumberOf))
+                    .toList();
+        }
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return false;
+        }
+        String number = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+        return !number.isEmpty() && number.chars().allMatch(Character::isDigit);
+    }
+
+    private static int segmentNumberOf(Path path) {
+        String name = path.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private Path segmentPath(int number) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    // 세그먼트 하나를 처음부터 순서대로 읽고, 읽은 레코드 수를 반환
+    private static int scan(Path path, Visitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            int records = (int) (channel.size() / RECORD_BYTES);
+            for (int i = 0; i < records; i++) {
+                int offset = i * RECORD_BYTES;
+                byte type = buffer.get(offset + TYPE);
+                if (type == 0) {
+                    return i;
+                }
+                visitor.accept(buffer.getLong(offset + ID), buffer.getLong(offset + USER_ID), buffer.getLong(offset + AMOUNT),
+                        TYPES[type - 1], buffer.getLong(offset + UPDATE_MILLIS));
+            }
+            return records;
+        }
+    }
+
+    /**
+     * 재생 시 레코드 하나를 전달받는 콜백
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        void accept(long id, long userId, long amount, TransactionType type, long updateMillis);
+    }
+}
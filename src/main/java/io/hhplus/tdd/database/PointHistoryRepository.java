@@ -0,0 +1,370 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointSummary;
+import io.hhplus.tdd.point.TransactionType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PointHistoryTable 앞단의 사용자별 내역 인덱스
+ * - 사용자 ID 별로 내역을 id 순서와 수정 시각 순서로 정렬해 보관하여, 조회 비용이 전체 내역이 아닌 해당 사용자의 내역 수에 비례합니다.
+ * - 내역은 사용자별 기본형 배열에 열 단위로 보관하고, PointHistory 객체는 조회 결과로 반환할 때만 만듭니다.
+ * - 인덱스에 없는 사용자는 처음 조회할 때 한 번만 테이블에서 읽어 인덱스를 채웁니다.
+ *   느린 전체 스캔이 인덱스의 다른 사용자를 막지 않도록 맵 밖에서 읽고, 내역이 없는 사용자도 빈 인덱스로 남겨 다시 스캔하지 않습니다.
+ *   (빈 인덱스는 MAX_EMPTY_USERS 명까지만 남기고, 넘으면 그 사용자는 조회마다 스캔)
+ * - 처음 기록하는 사용자는 스캔하지 않고 빈 인덱스에 바로 추가하며, 테이블에 먼저 있던 내역은 첫 조회 때 읽어 합칩니다.
+ * - 사용자마다 트랜잭션 종류별 건수와 금액 합계를 내역을 추가할 때 함께 갱신해, 요약은 내역 수와 관계없이 바로 반환합니다.
+ * - 테이블은 변경하지 않고 공개된 API(insert, selectAllByUserId)만 사용합니다.
+ * - 테이블 호출 지연 시간은 point.table.calls{table=point_history} 로 기록합니다.
+ * - 내역 로그(PointHistoryLog)가 주어지면 시작 시 로그를 재생해 인덱스를 채우고, 이후 기록되는 내역을 로그에도 남깁니다.
+ *   재시작 후 테이블의 id 는 1부터 다시 시작하므로, 로그의 마지막 id 만큼 더해 로그와 겹치지 않게 합니다.
+ */
+public class PointHistoryRepository {
+
+    private final PointHistoryTable pointHistoryTable;
+
+    // 내역이 없는 사용자의 빈 인덱스를 남기는 최대 수 (존재하지 않는 ID 조회로 인덱스가 끝없이 커지지 않도록)
+    static final int MAX_EMPTY_USERS = 100_000;
+
+    private final ConcurrentHashMap<Long, UserHistory> index = new ConcurrentHashMap<>();
+    private final AtomicInteger emptyUsers = new AtomicInteger();
+
+    private final Timer insertTimer;
+    private final Timer selectAllTimer;
+
+    // 내역 로그 (사용하지 않으면 null)
+    private final PointHistoryLog pointHistoryLog;
+
+    // 테이블이 부여한 id 에 더하는 값 (시작 시 로그의 마지막 id)
+    private final long idOffset;
+
+    public PointHistoryRepository(PointHistoryTable pointHistoryTable, MeterRegistry registry) {
+        this(pointHistoryTable, registry, null);
+    }
+
+    public PointHistoryRepository(PointHistoryTable pointHistoryTable, MeterRegistry registry, PointHistoryLog pointHistoryLog) {
+        this.pointHistoryTable = pointHistoryTable;
+        this.insertTimer = TableMetrics.timer(registry, "point_history", "insert");
+        this.selectAllTimer = TableMetrics.timer(registry, "point_history", "selectAllByUserId");
+        this.pointHistoryLog = pointHistoryLog;
+        if (pointHistoryLog != null) {
+            // 로그에 있는 사용자는 테이블을 다시 읽지 않도록 재생 결과로 인덱스를 채움
+            // 재생은 행만 채우고, 사용자별 합계는 재생이 끝난 뒤 사용자 단위로 나눠 병렬로 계산
+            // 첫 재생이 로그 복구도 함께 하므로 마지막 id 는 재생이 끝난 뒤에 읽음
+            pointHistoryLog.replay((id, userId, amount, type, updateMillis) ->
+                    index.computeIfAbsent(userId, key -> new UserHistory(key, List.of(), true))
+                            .insert(id, amount, type, updateMillis));
+            rebuildSummaries();
+        }
+        this.idOffset = pointHistoryLog == null ? 0 : pointHistoryLog.lastId();
+    }
+
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        // 테이블에 쓰기 전에 인덱스를 먼저 등록해야, 이후 조회의 스캔과 합칠 때 방금 쓴 내역을 id 로 걸러낼 수 있음
+        // 처음 기록하는 사용자는 스캔하지 않고 아직 읽지 않은(loaded = false) 인덱스를 만듦
+        UserHistory history = index.get(userId);
+        if (history == null) {
+            history = index.computeIfAbsent(userId, id -> new UserHistory(id, List.of(), false));
+        }
+        long start = System.nanoTime();
+        PointHistory pointHistory;
+        try {
+            pointHistory = pointHistoryTable.insert(userId, amount, type, updateMillis);
+        } finally {
+            insertTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (pointHistory == null) {
+            return null;
+        }
+        if (pointHistoryLog != null) {
+            pointHistory = shift(pointHistory);
+            pointHistoryLog.append(pointHistory);
+        }
+        history.add(pointHistory);
+        return pointHistory;
+    }
+
+    public List<PointHistory> selectAllByUserId(long userId) {
+        UserHistory history = historyOf(userId);
+        return history == null ? List.of() : history.snapshot();
+    }
+
+    // id 가 afterId 보다 큰 내역을 id 오름차순으로 최대 limit 건 조회 (커서 기반 페이지네이션)
+    public List<PointHistory> selectByUserId(long userId, long afterId, int limit) {
+        UserHistory history = historyOf(userId);
+        return history == null ? List.of() : history.page(afterId, limit);
+    }
+
+    // 수정 시각이 [fromMillis, toMillis) 인 내역을 시각 순서로 최대 limit 건 조회 (descending 이면 최근 내역부터)
+    // 사용자별 시각 순서 인덱스를 이진 탐색하므로 O(log n + limit)
+    public List<PointHistory> selectByUserIdBetween(long userId, long fromMillis, long toMillis, boolean descending, int limit) {
+        UserHistory history = historyOf(userId);
+        return history == null ? List.of() : history.range(fromMillis, toMillis, descending, limit);
+    }
+
+    // 트랜잭션 종류별 건수와 금액 합계 (인덱스에 있는 사용자는 내역 수와 관계없이 O(1))
+    public PointSummary summaryOf(long userId) {
+        UserHistory history = historyOf(userId);
+        return history == null ? emptySummary(userId) : history.summary();
+    }
+
+    // 보관 중인 모든 사용자의 합계를 내역에서 다시 계산 (사용자 단위로 나눠 ForkJoin 공용 풀에서 병렬 처리)
+    public void rebuildSummaries() {
+        index.forEachValue(1, UserHistory::resummarize);
+    }
+
+    // 조회용 인덱스 (빈 인덱스를 더 남길 수 없어 등록하지 못한 내역 없는 사용자는 null)
+    // 테이블을 아직 읽지 않은 사용자만 맵 밖에서 한 번 스캔하고, 그 사이 등록된 인덱스가 있으면 스캔 결과를 합침
+    private UserHistory historyOf(long userId) {
+        UserHistory history = index.get(userId);
+        if (history != null && history.loaded) {
+            return history;
+        }
+        List<PointHistory> loaded = load(userId);
+        if (history == null) {
+            if (loaded.isEmpty() && emptyUsers.get() >= MAX_EMPTY_USERS) {
+                return index.get(userId);
+            }
+            UserHistory created = new UserHistory(userId, loaded, true);
+            history = index.putIfAbsent(userId, created);
+            if (history == null) {
+                if (loaded.isEmpty()) {
+                    emptyUsers.incrementAndGet();
+                }
+                return created;
+            }
+        }
+        history.merge(loaded);
+        return history;
+    }
+
+    private List<PointHistory> load(long userId) {
+        return selectAllTimer.record(() -> pointHistoryTable.selectAllByUserId(userId))
+                .stream()
+                .map(this::shift)
+                .toList();
+    }
+
+    private static PointSummary emptySummary(long userId) {
+        Map<TransactionType, PointSummary.Total> totals = new EnumMap<>(TransactionType.class);
+        for (TransactionType type : TransactionType.values()) {
+            totals.put(type, new PointSummary.Total(0, 0));
+        }
+        return new PointSummary(userId, totals);
+    }
+
+    private PointHistory shift(PointHistory pointHistory) {
+        if (idOffset == 0) {
+            return pointHistory;
+        }
+        return new PointHistory(pointHistory.id() + idOffset, pointHistory.userId(), pointHistory.amount(), pointHistory.type(), pointHistory.updateMillis());
+    }
+
+    // 한 사용자의 내역을 필드별 기본형 배열(열)로 보관
+    // 행은 도착한 순서대로 뒤에 붙이고, id 순서와 수정 시각 순서는 각각 행 번호(int) 배열로 정렬해 두어 두 순서 모두 이진 탐색으로 찾는다
+    // 행마다 PointHistory 객체와 목록의 참조를 두지 않아 행당 33바이트(id, amount, updateMillis, type, 정렬 순서 2개)만 사용하며,
+    // PointHistory 는 호출자에게 반환할 때만 만든다
+    private static class UserHistory {
+        private static final TransactionType[] TYPES = TransactionType.values();
+        private static final int INITIAL_CAPACITY = 4;
+
+        private final long userId;
+        // 테이블의 기존 내역을 읽어 합쳤는지 (기록만 된 사용자는 false)
+        private volatile boolean loaded;
+        private long[] ids;
+        private long[] amounts;
+        private long[] updateMillis;
+        private byte[] types;
+        private int size;
+
+        // id 오름차순의 행 번호, (updateMillis, id) 오름차순의 행 번호
+        private int[] byId;
+        private int[] byTime;
+
+        // 트랜잭션 종류(ordinal)별 건수와 금액 합계
+        private final long[] typeCounts = new long[TYPES.length];
+        private final long[] typeAmounts = new long[TYPES.length];
+
+        private UserHistory(long userId, List<PointHistory> initial, boolean loaded) {
+            this.userId = userId;
+            this.loaded = loaded;
+            // 내역 없는 사용자의 빈 인덱스는 배열을 만들지 않고 첫 기록 때 늘림
+            int capacity = initial.size();
+            this.ids = new long[capacity];
+            this.amounts = new long[capacity];
+            this.updateMillis = new long[capacity];
+            this.types = new byte[capacity];
+            this.byId = new int[capacity];
+            this.byTime = new int[capacity];
+            for (PointHistory pointHistory : initial) {
+                add(pointHistory);
+            }
+        }
+
+        // 첫 조회의 스캔과 기록이 겹치면 같은 내역이 두 번 도착할 수 있으므로 id 로 거름
+        private synchronized void add(PointHistory pointHistory) {
+            if (!contains(pointHistory.id())) {
+                add(pointHistory.id(), pointHistory.amount(), pointHistory.type(), pointHistory.updateMillis());
+            }
+        }
+
+        // 테이블에서 읽은 기존 내역 중 아직 없는 내역을 합치고 읽음 표시
+        private synchronized void merge(List<PointHistory> scanned) {
+            if (loaded) {
+                return;
+            }
+            for (PointHistory pointHistory : scanned) {
+                add(pointHistory);
+            }
+            loaded = true;
+        }
+
+        private boolean contains(long id) {
+            int position = firstIdAfter(id - 1);
+            return position < size && ids[byId[position]] == id;
+        }
+
+        private synchronized void add(long id, long amount, TransactionType type, long millis) {
+            insert(id, amount, type, millis);
+            typeCounts[type.ordinal()]++;
+            typeAmounts[type.ordinal()] += amount;
+        }
+
+        // 합계는 갱신하지 않고 행만 추가 (로그 재생용, 재생 후 resummarize 로 계산)
+        // 동시에 기록된 내역은 id/시각 순서와 다르게 도착할 수 있으므로 두 순서 모두 뒤에서부터 제자리를 찾아 삽입
+        private synchronized void insert(long id, long amount, TransactionType type, long millis) {
+            if (size == ids.length) {
+                grow();
+            }
+            int row = size;
+            ids[row] = id;
+            amounts[row] = amount;
+            updateMillis[row] = millis;
+            types[row] = (byte) type.ordinal();
+
+            int position = size;
+            while (position > 0 && ids[byId[position - 1]] > id) {
+                position--;
+            }
+            System.arraycopy(byId, position, byId, position + 1, size - position);
+            byId[position] = row;
+
+            position = size;
+            while (position > 0 && isLater(byTime[position - 1], millis, id)) {
+                position--;
+            }
+            System.arraycopy(byTime, position, byTime, position + 1, size - position);
+            byTime[position] = row;
+            size++;
+        }
+
+        private synchronized PointSummary summary() {
+            Map<TransactionType, PointSummary.Total> totals = new EnumMap<>(TransactionType.class);
+            for (TransactionType type : TYPES) {
+                totals.put(type, new PointSummary.Total(typeCounts[type.ordinal()], typeAmounts[type.ordinal()]));
+            }
+            return new PointSummary(userId, totals);
+        }
+
+        private synchronized void resummarize() {
+            Arrays.fill(typeCounts, 0);
+            Arrays.fill(typeAmounts, 0);
+            for (int i = 0; i < size; i++) {
+                typeCounts[types[i]]++;
+                typeAmounts[types[i]] += amounts[i];
+            }
+        }
+
+        private synchronized List<PointHistory> snapshot() {
+            return rows(byId, 0, size, false);
+        }
+
+        private synchronized List<PointHistory> page(long afterId, int limit) {
+            int from = firstIdAfter(afterId);
+            int to = (int) Math.min(size, (long) from + limit);
+            return from >= to ? List.of() : rows(byId, from, to, false);
+        }
+
+        // 수정 시각이 [fromMillis, toMillis) 인 내역 중 앞(오름차순) 또는 뒤(내림차순)에서 최대 limit 건
+        private synchronized List<PointHistory> range(long fromMillis, long toMillis, boolean descending, int limit) {
+            int from = firstTimeAtOrAfter(fromMillis);
+            int to = firstTimeAtOrAfter(toMillis);
+            if (from >= to) {
+                return List.of();
+            }
+            if (to - from > limit) {
+                if (descending) {
+                    from = to - limit;
+                } else {
+                    to = from + limit;
+                }
+            }
+            return rows(byTime, from, to, descending);
+        }
+
+        // order 의 [from, to) 위치에 있는 행을 PointHistory 로 변환 (reversed 면 뒤에서부터)
+        private List<PointHistory> rows(int[] order, int from, int to, boolean reversed) {
+            PointHistory[] rows = new PointHistory[to - from];
+            for (int i = from; i < to; i++) {
+                int row = order[i];
+                rows[reversed ? to - 1 - i : i - from] = new PointHistory(ids[row], userId, amounts[row], TYPES[types[row]], updateMillis[row]);
+            }
+            return List.of(rows);
+        }
+
+        // 행이 (millis, id) 보다 뒤에 정렬되는지 (수정 시각이 같으면 id 순서)
+        private boolean isLater(int row, long millis, long id) {
+            return updateMillis[row] > millis || (updateMillis[row] == millis && ids[row] > id);
+        }
+
+        // 1.5배씩 늘려 큰 사용자에서도 남는 공간을 줄임
+        private void grow() {
+            int capacity = Math.max(INITIAL_CAPACITY, ids.length + (ids.length >> 1) + 1);
+            ids = Arrays.copyOf(ids, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            updateMillis = Arrays.copyOf(updateMillis, capacity);
+            types = Arrays.copyOf(types, capacity);
+            byId = Arrays.copyOf(byId, capacity);
+            byTime = Arrays.copyOf(byTime, capacity);
+        }
+
+        // id 가 afterId 보다 큰 첫 번째 위치를 이진 탐색
+        private int firstIdAfter(long afterId) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ids[byId[mid]] <= afterId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // 수정 시각이 millis 이상인 첫 번째 위치를 이진 탐색
+        private int firstTimeAtOrAfter(long millis) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (updateMillis[byTime[mid]] < millis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
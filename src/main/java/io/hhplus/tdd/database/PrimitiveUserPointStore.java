@@ -0,0 +1,69 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * UserPointTable 앞단의 박싱 없는 잔고 저장소
+ * - 조회하거나 저장한 모든 사용자의 잔고를 LongBalanceMap 에 보관하고, 맵에 없는 사용자만 테이블에서 읽어 채웁니다.
+ * - 저장은 테이블에 먼저 쓴 뒤 맵을 갱신합니다 (write-through).
+ * - 잔고만 필요한 경우 selectPointById(맵에 없으면 테이블에서 채움) 또는 pointOf(맵에 있는 사용자만)로 UserPoint 객체 없이 조회할 수 있습니다.
+ * - PointService 는 이 저장소를 쓸 때 앞단의 박싱 캐시(UserPointCache)를 끄고 그대로 호출합니다.
+ */
+public class PrimitiveUserPointStore implements UserPointRepository {
+
+    private final UserPointTable userPointTable;
+    private final LongBalanceMap balances;
+
+    public PrimitiveUserPointStore(UserPointTable userPointTable) {
+        this(userPointTable, 16);
+    }
+
+    public PrimitiveUserPointStore(UserPointTable userPointTable, int expectedUsers) {
+        this.userPointTable = userPointTable;
+        this.balances = new LongBalanceMap(expectedUsers);
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        UserPoint userPoint = balances.get(id);
+        if (userPoint != null) {
+            return userPoint;
+        }
+        UserPoint loaded = userPointTable.selectById(id);
+        // 테이블을 읽는 동안 저장된 더 새로운 잔고를 덮어쓰지 않도록 없을 때만 채움
+        if (loaded != null && !balances.putIfAbsent(id, loaded.point(), loaded.updateMillis())) {
+            return balances.get(id);
+        }
+        return loaded;
+    }
+
+    // 맵에 있으면 UserPoint 객체를 만들지 않고 잔고만 반환 (Long.MIN_VALUE 는 잔고로 쓰이지 않으므로 맵에 없다는 표시로 사용)
+    @Override
+    public long selectPointById(long id, long missing) {
+        long point = balances.point(id, Long.MIN_VALUE);
+        if (point != Long.MIN_VALUE) {
+            return point;
+        }
+        UserPoint loaded = selectById(id);
+        return loaded == null ? missing : loaded.point();
+    }
+
+    // 같은 사용자에 대한 저장은 호출자(사용자 락, 잔고 저장 작업 스레드)가 순서를 보장
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        UserPoint written = userPointTable.insertOrUpdate(id, amount);
+        if (written != null) {
+            balances.put(id, written.point(), written.updateMillis());
+        }
+        return written;
+    }
+
+    // 맵에 있는 사용자의 잔고 (없으면 missing)
+    public long pointOf(long id, long missing) {
+        return balances.point(id, missing);
+    }
+
+    public int size() {
+        return balances.size();
+    }
+}
@@ -0,0 +1,33 @@
+package io.hhplus.tdd.database;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 테이블 호출 지표 등록 도우미
+ */
+final class TableMetrics {
+
+    private TableMetrics() {
+    }
+
+    // 테이블/연산별 호출 지연 시간 (p50/p99 등을 Prometheus 에서 계산할 수 있도록 히스토그램으로 노출)
+    static Timer timer(MeterRegistry registry, String table, String operation) {
+        return Timer.builder("point.table.calls")
+                .description("테이블 호출 지연 시간")
+                .tag("table", table)
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    // 잔고 캐시 적중/실패/제거 횟수와 현재 크기
+    static void cache(MeterRegistry registry, UserPointCache cache) {
+        FunctionCounter.builder("point.cache.hits", cache, c -> c.stats().hits()).register(registry);
+        FunctionCounter.builder("point.cache.misses", cache, c -> c.stats().misses()).register(registry);
+        FunctionCounter.builder("point.cache.evictions", cache, c -> c.stats().evictions()).register(registry);
+        Gauge.builder("point.cache.size", cache, c -> c.stats().size()).register(registry);
+    }
+}
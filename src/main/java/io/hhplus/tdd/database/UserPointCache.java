@@ -0,0 +1,226 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * UserPointTable 앞단의 read-through / write-through 잔고 캐시
+ * - 조회 시 캐시에 없으면 테이블에서 읽어 채우고, 저장은 항상 테이블에 먼저 쓴 뒤 캐시를 갱신합니다.
+ * - 최대 크기를 넘으면 테이블을 순환하는 시계 바늘로 일부 항목을 표본 추출해 접근 빈도가 가장 낮은 항목을 제거합니다.
+ * - 테이블은 변경하지 않고 공개된 API(selectById, insertOrUpdate)만 사용합니다.
+ * - 테이블 호출 지연 시간은 point.table.calls{table=user_point} 로 기록합니다.
+ * - maxSize 가 0 이하이면 맵을 전혀 거치지 않고 저장소를 그대로 호출합니다. (저장소가 이미 모든 잔고를 박싱 없이 보관하는 경우)
+ */
+public class UserPointCache {
+
+    // 제거 대상을 고를 때 비교하는 표본 수
+    private static final int EVICTION_SAMPLES = 8;
+
+    // 조회 중 저장이 끼어들었는지 판단하기 위한 버전 스트라이프 수 (2의 거듭제곱)
+    private static final int VERSION_STRIPES = 64;
+
+    private final UserPointRepository userPointTable;
+    private final int maxSize;
+
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    // 다음 제거 표본을 읽을 위치 (evictionLock 안에서만 사용)
+    private Iterator<Entry> clockHand = entries.values().iterator();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final Timer selectTimer;
+    private final Timer insertOrUpdateTimer;
+
+    // maxSize 가 0 이하이면 캐시에 저장하지 않고 테이블을 그대로 호출
+    public UserPointCache(UserPointTable userPointTable, int maxSize, MeterRegistry registry) {
+        this(UserPointRepository.of(userPointTable), maxSize, registry);
+    }
+
+    // 테이블 대신 영속화 계층 등 다른 잔고 저장소를 사용할 때
+    public UserPointCache(UserPointRepository userPointTable, int maxSize, MeterRegistry registry) {
+        this.userPointTable = userPointTable;
+        this.maxSize = maxSize;
+        this.selectTimer = TableMetrics.timer(registry, "user_point", "selectById");
+        this.insertOrUpdateTimer = TableMetrics.timer(registry, "user_point", "insertOrUpdate");
+        TableMetrics.cache(registry, this);
+    }
+
+    public UserPoint selectById(long id) {
+        if (maxSize <= 0) {
+            misses.increment();
+            return timedSelect(id);
+        }
+        Entry entry = entries.get(id);
+        if (entry != null) {
+            entry.touch();
+            hits.increment();
+            return entry.userPoint;
+        }
+        misses.increment();
+
+        // 테이블 조회 도중 같은 스트라이프에 저장이 있었다면 읽은 값이 오래된 값일 수 있으므로 캐시에 넣지 않음
+        int stripe = stripe(id);
+        long version = versions.get(stripe);
+        UserPoint loaded = timedSelect(id);
+        if (loaded != null) {
+            entries.compute(id, (key, current) -> {
+                if (current != null) {
+                    return current;
+                }
+                return versions.get(stripe) == version ? new Entry(loaded) : null;
+            });
+            evictIfNecessary();
+        }
+        return loaded;
+    }
+
+    // 잔고만 필요한 경우: 캐시를 쓰지 않으면 저장소에서 UserPoint 객체 없이 읽음 (없는 사용자면 missing)
+    public long selectPointById(long id, long missing) {
+        if (maxSize > 0) {
+            UserPoint userPoint = selectById(id);
+            return userPoint == null ? missing : userPoint.point();
+        }
+        misses.increment();
+        long start = System.nanoTime();
+        try {
+            return userPointTable.selectPointById(id, missing);
+        } finally {
+            selectTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public UserPoint insertOrUpdate(long id, long amount) {
+        long start = System.nanoTime();
+        UserPoint written;
+        try {
+            written = userPointTable.insertOrUpdate(id, amount);
+        } finally {
+            insertOrUpdateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (maxSize <= 0) {
+            return written;
+        }
+        int stripe = stripe(id);
+        if (written != null) {
+            entries.compute(id, (key, current) -> {
+                versions.incrementAndGet(stripe);
+                return current == null ? new Entry(written) : current.replace(written);
+            });
+            evictIfNecessary();
+        } else {
+            versions.incrementAndGet(stripe);
+            entries.remove(id);
+        }
+        return written;
+    }
+
+    private UserPoint timedSelect(long id) {
+        long start = System.nanoTime();
+        try {
+            return userPointTable.selectById(id);
+        } finally {
+            selectTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+
+    // 최대 크기를 넘은 경우 표본 중 접근 빈도가 가장 낮은 항목을 제거하고, 나머지 표본의 빈도는 절반으로 줄여 오래된 인기도를 잊게 함
+    // 표본은 제거 사이에 유지되는 시계 바늘(iterator)이 이어서 읽으므로 테이블 앞쪽 버킷만 반복해서 보지 않고 전체를 순환함
+    private void evictIfNecessary() {
+        if (entries.size() <= maxSize || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            while (entries.size() > maxSize) {
+                Entry victim = null;
+                int sampled = 0;
+                boolean wrapped = false;
+                while (sampled < EVICTION_SAMPLES) {
+                    if (!clockHand.hasNext()) {
+                        // 한 번의 제거에서 두 바퀴째 돌지 않음 (항목이 표본 수보다 적은 경우)
+                        if (wrapped) {
+                            break;
+                        }
+                        wrapped = true;
+                        clockHand = entries.values().iterator();
+                        continue;
+                    }
+                    Entry candidate = clockHand.next();
+                    sampled++;
+                    if (victim == null || candidate.frequency < victim.frequency) {
+                        if (victim != null) {
+                            victim.decay();
+                        }
+                        victim = candidate;
+                    } else {
+                        candidate.decay();
+                    }
+                }
+                if (victim == null) {
+                    return;
+                }
+                if (entries.remove(victim.userPoint.id(), victim)) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static int stripe(long id) {
+        return (int) (id ^ (id >>> 32)) & (VERSION_STRIPES - 1);
+    }
+
+    /**
+     * 캐시 적중/실패/제거 횟수와 현재 크기
+     */
+    public record Stats(long hits, long misses, long evictions, int size) {
+    }
+
+    private static class Entry {
+        private final UserPoint userPoint;
+        private volatile int frequency;
+
+        private Entry(UserPoint userPoint) {
+            this(userPoint, 1);
+        }
+
+        private Entry(UserPoint userPoint, int frequency) {
+            this.userPoint = userPoint;
+            this.frequency = frequency;
+        }
+
+        // 경쟁 상황에서 일부 증가가 누락될 수 있지만 빈도는 근사치로만 사용
+        private void touch() {
+            int current = frequency;
+            if (current < Integer.MAX_VALUE) {
+                frequency = current + 1;
+            }
+        }
+
+        private void decay() {
+            frequency = frequency >>> 1;
+        }
+
+        private Entry replace(UserPoint userPoint) {
+            return new Entry(userPoint, frequency + 1);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * 잔고 저장소 (UserPointTable 과 같은 조회/저장 API)
+ * - 잔고 캐시는 이 인터페이스를 통해 테이블 또는 영속화 계층에 접근합니다.
+ */
+public interface UserPointRepository {
+
+    UserPoint selectById(long id);
+
+    UserPoint insertOrUpdate(long id, long amount);
+
+    // 잔고만 조회 (없는 사용자면 missing)
+    default long selectPointById(long id, long missing) {
+        UserPoint userPoint = selectById(id);
+        return userPoint == null ? missing : userPoint.point();
+    }
+
+    // 테이블을 그대로 호출하는 저장소
+    static UserPointRepository of(UserPointTable userPointTable) {
+        return new UserPointRepository() {
+            @Override
+            public UserPoint selectById(long id) {
+                return userPointTable.selectById(id);
+            }
+
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                return userPointTable.insertOrUpdate(id, amount);
+            }
+        };
+    }
+}
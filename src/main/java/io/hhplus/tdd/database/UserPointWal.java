@@ -0,0 +1,323 @@
+package io.hhplus.tdd.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 잔고 변경 write-ahead log
+ * - 레코드는 lsn, userId, 변경 후 잔고, updateMillis, 체크섬(각 8바이트)으로 구성된 40바이트 고정 길이입니다.
+ * - 변경 후 잔고를 기록하므로 같은 레코드를 여러 번 재생해도 결과가 같습니다.
+ * - fsync 정책
+ *   - PER_WRITE : 기록할 때마다 디스크에 반영한 뒤 반환 (가장 안전, 가장 느림)
+ *   - GROUP : 동시에 기다리는 기록들을 한 번의 fsync 로 묶어 반영한 뒤 반환
+ *   - INTERVAL : 일정 주기로 반영하고 기록은 바로 반환 (주기만큼의 변경은 유실될 수 있음)
+ * - 스냅샷 시점에 새 파일로 전환(roll)하며, 스냅샷에 포함된 이전 파일은 삭제할 수 있습니다.
+ */
+public class UserPointWal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(UserPointWal.class);
+
+    static final int RECORD_BYTES = 40;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final String PREFIX = "wal-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+    // 아래 필드는 this 로 보호
+    private FileChannel channel;
+    private Path currentFile;
+    private long lastLsn;
+
+    // 디스크 반영이 끝난 마지막 lsn (GROUP 정책에서 대기 조건으로 사용)
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+    private boolean syncing;
+    private volatile long durableLsn;
+
+    private final ScheduledExecutorService intervalSync;
+
+    private UserPointWal(Path directory, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis) {
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            this.intervalSync = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "user-point-wal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            intervalSync.scheduleWithFixedDelay(this::syncQuietly, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.intervalSync = null;
+        }
+    }
+
+    // afterLsn 이후의 레코드를 재생한 뒤 이어서 기록할 수 있도록 연다
+    // 마지막 파일 끝의 불완전한 레코드(기록 도중 종료)는 잘라낸다
+    public static UserPointWal open(Path directory, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis, long afterLsn, Visitor visitor) {
+        UserPointWal wal = new UserPointWal(directory, fsyncPolicy, fsyncIntervalMillis);
+        try {
+            Files.createDirectories(directory);
+            List<Path> files = wal.files();
+            long lastLsn = afterLsn;
+            for (int i = 0; i < files.size(); i++) {
+                lastLsn = replay(files.get(i), afterLsn, lastLsn, visitor, i == files.size() - 1);
+            }
+            wal.lastLsn = lastLsn;
+            wal.durableLsn = lastLsn;
+            wal.openFile(files.isEmpty() ? wal.path(lastLsn + 1) : files.get(files.size() - 1));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return wal;
+    }
+
+    // 레코드를 추가하고 lsn 을 반환 (GROUP 정책은 awaitDurable 로 반영을 기다려야 함)
+    public synchronized long append(long userId, long balance, long updateMillis) {
+        long lsn = ++lastLsn;
+        if (buffer.remaining() < RECORD_BYTES) {
+            writeBuffer();
+        }
+        buffer.putLong(lsn).putLong(userId).putLong(balance).putLong(updateMillis).putLong(checksum(lsn, userId, balance, updateMillis));
+        if (fsyncPolicy == FsyncPolicy.PER_WRITE) {
+            writeBuffer();
+            force(channel);
+            durableLsn = lsn;
+        }
+        return lsn;
+    }
+
+    // GROUP 정책에서 lsn 까지 디스크에 반영될 때까지 대기
+    // 먼저 도착한 스레드가 fsync 를 하는 동안 들어온 기록은 다음 fsync 한 번으로 함께 반영됨
+    public void awaitDurable(long lsn) {
+        if (fsyncPolicy != FsyncPolicy.GROUP || durableLsn >= lsn) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            while (durableLsn < lsn) {
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                syncLock.unlock();
+                long syncedLsn = 0;
+                try {
+                    syncedLsn = sync();
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    durableLsn = Math.max(durableLsn, syncedLsn);
+                    synced.signalAll();
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // 버퍼를 파일에 쓰고 fsync 한 뒤, 반영된 마지막 lsn 을 반환
+    public long sync() {
+        FileChannel target;
+        long upTo;
+        synchronized (this) {
+            writeBuffer();
+            target = channel;
+            upTo = lastLsn;
+        }
+        // fsync 동안에도 다른 스레드가 버퍼에 기록할 수 있도록 모니터 밖에서 반영
+        try {
+            target.force(false);
+        } catch (ClosedChannelException e) {
+            // 그 사이 파일이 전환되었다면 전환 시 이미 반영됨
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return upTo;
+    }
+
+    // 현재 파일을 반영하고 닫은 뒤 새 파일로 전환, 전환 직전의 마지막 lsn 을 반환
+    public synchronized long roll() {
+        writeBuffer();
+        force(channel);
+        durableLsn = lastLsn;
+        try {
+            channel.close();
+            openFile(path(lastLsn + 1));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lastLsn;
+    }
+
+    // lsn 이하의 레코드만 담긴 파일 삭제 (스냅샷 완료 후 호출)
+    public synchronized void deleteUpTo(long lsn) {
+        try {
+            // 현재 파일보다 앞선 파일의 레코드는 모두 현재 파일의 첫 lsn 보다 작음
+            for (Path file : files()) {
+                if (!file.equals(currentFile) && firstLsn(file) <= lsn) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized long lastLsn() {
+        return lastLsn;
+    }
+
+    @Override
+    public void close() {
+        if (intervalSync != null) {
+            intervalSync.shutdown();
+        }
+        synchronized (this) {
+            writeBuffer();
+            force(channel);
+            durableLsn = lastLsn;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            durableLsn = Math.max(durableLsn, sync());
+        } catch (RuntimeException e) {
+            log.error("잔고 WAL 주기 반영 실패", e);
+        }
+    }
+
+    private void writeBuffer() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private static void force(FileChannel channel) {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void openFile(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        currentFile = file;
+    }
+
+    // 파일 하나를 재생하고 마지막 lsn 을 반환
+    private static long replay(Path file, long afterLsn, long lastLsn, Visitor visitor, boolean lastFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer records = ByteBuffer.allocate(RECORD_BYTES * 1024).order(ByteOrder.LITTLE_ENDIAN);
+            long offset = 0;
+            while (true) {
+                records.clear();
+                int read = channel.read(records, offset);
+                if (read <= 0) {
+                    break;
+                }
+                records.flip();
+                while (records.remaining() >= RECORD_BYTES) {
+                    long lsn = records.getLong();
+                    long userId = records.getLong();
+                    long balance = records.getLong();
+                    long updateMillis = records.getLong();
+                    long checksum = records.getLong();
+                    if (checksum != checksum(lsn, userId, balance, updateMillis)) {
+                        return truncate(file, channel, offset, lastLsn, lastFile);
+                    }
+                    if (lsn > afterLsn) {
+                        visitor.accept(lsn, userId, balance, updateMillis);
+                        lastLsn = lsn;
+                    }
+                    offset += RECORD_BYTES;
+                }
+                if (records.remaining() > 0 && read < records.capacity()) {
+                    // 파일 끝에 레코드 크기보다 작은 조각이 남은 경우
+                    return truncate(file, channel, offset, lastLsn, lastFile);
+                }
+            }
+            return lastLsn;
+        }
+    }
+
+    private static long truncate(Path file, FileChannel channel, long offset, long lastLsn, boolean lastFile) throws IOException {
+        if (!lastFile) {
+            throw new IllegalStateException("잔고 WAL 중간 파일이 손상되었습니다: " + file + " (offset " + offset + ")");
+        }
+        log.warn("잔고 WAL 끝의 불완전한 레코드를 잘라냅니다: {} (offset {})", file, offset);
+        channel.truncate(offset);
+        return lastLsn;
+    }
+
+    private static long checksum(long lsn, long userId, long balance, long updateMillis) {
+        long h = lsn * 0x9E3779B97F4A7C15L;
+        h = (h ^ userId) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ balance) * 0x94D049BB133111EBL;
+        h = (h ^ updateMillis) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 31);
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(PREFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path path(long firstLsn) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, firstLsn, SUFFIX));
+    }
+
+    private static long firstLsn(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    public enum FsyncPolicy {
+        PER_WRITE, GROUP, INTERVAL
+    }
+
+    /**
+     * 재생 시 레코드 하나를 전달받는 콜백
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        void accept(long lsn, long userId, long balance, long updateMillis);
+    }
+}
@@ -0,0 +1,317 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.UserPointCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * 사용자별 원자적 잔고 셀을 기준으로 충전/사용을 처리하는 잔고 엔진
+ * - 충전/사용은 락 없이 compare-and-set 반복으로 반영하며, 최대 잔고와 음수 잔고 규칙도 같은 반복 안에서 검사합니다.
+ * - 테이블에는 백그라운드 작업 스레드가 마지막 잔고만 모아서 기록합니다. (연속된 변경은 한 번의 저장으로 합쳐짐)
+ * - 같은 사용자의 저장은 항상 같은 작업 스레드가 처리하므로 오래된 잔고가 최신 잔고를 덮어쓰지 않습니다.
+ * - 셀 수가 maxUsers 를 넘으면 각 작업 스레드가 테이블에 이미 기록된 셀만 골라 내보냅니다.
+ *   (기록되지 않은 변경이 남은 셀은 내보내지 않으므로 테이블이 밀리면 잠시 상한을 넘을 수 있음)
+ * - 저장에 실패하면 예약 표시를 되돌리고 대기 시간을 두 배씩 늘려(최대 5초) 다시 저장합니다.
+ * - close() 는 테이블에 기록된 잔고와 다른 셀을 모두 기록한 뒤 종료합니다.
+ */
+public class AtomicBalanceEngine implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AtomicBalanceEngine.class);
+
+    // 내보낸 셀의 잔고 값 (이 값을 본 스레드는 맵에서 셀을 다시 찾음)
+    private static final long RETIRED = Long.MIN_VALUE;
+    // 셀을 읽어 오는 동안 내보내기가 있었는지 확인하는 세대 칸 수
+    private static final int EVICTION_SLOTS = 64;
+    // 저장 실패 후 다시 시도하기까지의 첫 대기 시간과 최대 대기 시간
+    private static final long RETRY_INITIAL_MILLIS = 100;
+    private static final long RETRY_MAX_MILLIS = 5_000;
+
+    private final UserPointCache userPointCache;
+    private final PointMetrics metrics;
+    private final long maxBalance;
+    private final int maxUsers;
+
+    private final ConcurrentHashMap<Long, Cell> cells = new ConcurrentHashMap<>();
+    private final List<ScheduledThreadPoolExecutor> flushers = new ArrayList<>();
+    private final List<AtomicBoolean> sweepScheduled = new ArrayList<>();
+    private final AtomicLongArray evictionEpochs = new AtomicLongArray(EVICTION_SLOTS);
+
+    private final LongAdder casRetries = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public AtomicBalanceEngine(UserPointCache userPointCache, PointMetrics metrics, long maxBalance, int flushWorkers, int maxUsers) {
+        this.userPointCache = userPointCache;
+        this.metrics = metrics;
+        this.maxBalance = maxBalance;
+        this.maxUsers = maxUsers;
+        for (int i = 0; i < flushWorkers; i++) {
+            sweepScheduled.add(new AtomicBoolean());
+            String name = "point-balance-flusher-" + i;
+            ScheduledThreadPoolExecutor flusher = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            // 종료할 때 대기 중인 재시도는 버리고 close() 가 기록되지 않은 셀을 직접 저장
+            flusher.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            flushers.add(flusher);
+        }
+    }
+
+    public UserPoint get(long userId) {
+        while (true) {
+            Cell cell = cellOf(userId);
+            long balance = cell.balance.get();
+            if (balance != RETIRED) {
+                return new UserPoint(userId, balance, cell.updateMillis);
+            }
+        }
+    }
+
+    public UserPoint charge(long userId, long amount) {
+        return update(userId, amount, (balance, delta) -> {
+            long next = balance + delta;
+            if (next > maxBalance) {
+                throw metrics.reject(PointMetrics.RejectionReason.MAX_BALANCE, "최대 잔고는 10,000원을 초과할 수 없습니다.");
+            }
+            return next;
+        });
+    }
+
+    public UserPoint use(long userId, long amount) {
+        return update(userId, amount, (balance, delta) -> {
+            if (balance < delta) {
+                throw metrics.reject(PointMetrics.RejectionReason.INSUFFICIENT_BALANCE, "잔고가 부족합니다.");
+            }
+            return balance - delta;
+        });
+    }
+
+    // 이미 반영된 충전/사용을 되돌림 (보상 처리도 같은 잔고 규칙을 지키며, 그 사이 바뀐 잔고로는 되돌릴 수 없으면 IllegalStateException 발생)
+    public UserPoint revert(long userId, TransactionType type, long amount) {
+        return update(userId, amount, (balance, delta) -> {
+            long next = type == TransactionType.CHARGE ? balance - delta : balance + delta;
+            if (next < 0 || next > maxBalance) {
+                throw new IllegalStateException("되돌리면 잔고가 한도를 벗어나 되돌리지 못했습니다.");
+            }
+            return next;
+        });
+    }
+
+    // 읽은 잔고가 그 사이 바뀌지 않았을 때만 새 잔고로 교체하고, 바뀌었으면 다시 계산
+    private UserPoint update(long userId, long amount, LongBinaryOperator apply) {
+        Cell cell = cellOf(userId);
+        while (true) {
+            long current = cell.balance.get();
+            if (current == RETIRED) {
+                cell = cellOf(userId);
+                continue;
+            }
+            long next = apply.applyAsLong(current, amount);
+            if (cell.balance.compareAndSet(current, next)) {
+                long now = System.currentTimeMillis();
+                cell.updateMillis = now;
+                scheduleFlush(userId, cell);
+                return new UserPoint(userId, next, now);
+            }
+            casRetries.increment();
+        }
+    }
+
+    // 처음 접근한 사용자는 테이블에서 읽어 셀을 만듦
+    // 느린 조회가 맵의 다른 키를 막지 않도록 맵 밖에서 읽고, 동시에 만든 셀이 있으면 먼저 등록된 셀을 사용
+    // 읽는 사이 같은 칸의 셀이 내보내졌다면 읽은 잔고가 오래된 값일 수 있으므로 다시 읽음
+    private Cell cellOf(long userId) {
+        int slot = evictionSlotOf(userId);
+        while (true) {
+            Cell cell = cells.get(userId);
+            if (cell != null && cell.balance.get() != RETIRED) {
+                return cell;
+            }
+            long epoch = evictionEpochs.get(slot);
+            UserPoint loaded = userPointCache.selectById(userId);
+            if (loaded == null) {
+                throw metrics.reject(PointMetrics.RejectionReason.UNKNOWN_USER, "존재하지 않는 사용자입니다.");
+            }
+            Cell created = new Cell(loaded.point(), loaded.updateMillis());
+            // 내보내기는 칸의 세대를 올린 뒤 셀을 닫고 맵에서 지우므로, 같은 키에 대한 compute 안에서 세대를 확인하면 놓치지 않음
+            Cell registered = cells.compute(userId, (id, current) -> {
+                if (current != null && current.balance.get() != RETIRED) {
+                    return current;
+                }
+                return evictionEpochs.get(slot) == epoch ? created : current;
+            });
+            if (registered == created && cells.size() > maxUsers) {
+                scheduleSweeps();
+            }
+            if (registered != null && registered.balance.get() != RETIRED) {
+                return registered;
+            }
+        }
+    }
+
+    // 셀 수가 상한을 넘으면 작업 스레드마다 자기 사용자의 셀을 내보내도록 예약
+    private void scheduleSweeps() {
+        for (int i = 0; i < flushers.size(); i++) {
+            int index = i;
+            if (sweepScheduled.get(index).compareAndSet(false, true)) {
+                try {
+                    flushers.get(index).execute(() -> sweep(index));
+                } catch (RejectedExecutionException e) {
+                    sweepScheduled.get(index).set(false);
+                }
+            }
+        }
+    }
+
+    // 상한의 3/4 이하가 될 때까지 테이블에 기록된 잔고와 같은 셀을 내보냄
+    // 같은 사용자의 저장과 같은 작업 스레드에서 실행되므로 저장 도중인 셀을 내보내지 않음
+    private void sweep(int index) {
+        sweepScheduled.get(index).set(false);
+        int target = maxUsers - maxUsers / 4;
+        for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+            if (cells.size() <= target) {
+                return;
+            }
+            long userId = entry.getKey();
+            Cell cell = entry.getValue();
+            if (flusherIndexOf(userId) != index || cell.flushScheduled.get()) {
+                continue;
+            }
+            // 세대를 먼저 올려야 내보낸 셀을 본 조회가 오래된 값으로 셀을 만들지 않음
+            // 그 사이 잔고가 바뀌었으면 compare-and-set 이 실패해 내보내지 않음
+            evictionEpochs.incrementAndGet(evictionSlotOf(userId));
+            if (cell.balance.compareAndSet(cell.persisted, RETIRED)) {
+                cells.remove(userId, cell);
+                evictions.increment();
+            }
+        }
+    }
+
+    // 이미 저장이 예약되어 있으면 그 저장이 최신 잔고를 읽어 가므로 새로 예약하지 않음
+    private void scheduleFlush(long userId, Cell cell) {
+        if (cell.flushScheduled.compareAndSet(false, true)) {
+            try {
+                flusherOf(userId).execute(() -> flush(userId, cell));
+            } catch (RejectedExecutionException e) {
+                // 종료 중이면 예약 표시를 남겨 두어 close() 가 마저 기록하게 함
+                log.debug("종료 중이라 잔고 저장을 예약하지 못했습니다: userId={}", userId);
+            }
+        }
+    }
+
+    private void flush(long userId, Cell cell) {
+        // 예약 표시를 먼저 지워야 저장 도중 바뀐 잔고가 다음 저장으로 이어짐
+        cell.flushScheduled.set(false);
+        long balance = cell.balance.get();
+        // 내보낸 셀은 테이블에 이미 같은 잔고가 기록되어 있음
+        if (balance == RETIRED) {
+            return;
+        }
+        try {
+            userPointCache.insertOrUpdate(userId, balance);
+            cell.persisted = balance;
+            cell.failures = 0;
+            flushes.increment();
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+            log.error("잔고 저장 실패: userId={}", userId, e);
+            scheduleRetry(userId, cell);
+        }
+        // 저장이 밀려 내보내지 못한 셀이 있었다면 기록이 끝난 지금 다시 내보냄
+        if (cells.size() > maxUsers) {
+            scheduleSweeps();
+        }
+    }
+
+    // 그 사이 새 저장이 예약되었으면 그 저장이 다시 시도하므로 따로 예약하지 않음
+    private void scheduleRetry(long userId, Cell cell) {
+        if (!cell.flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        long delay = Math.min(RETRY_INITIAL_MILLIS << Math.min(cell.failures, 16), RETRY_MAX_MILLIS);
+        cell.failures++;
+        try {
+            flusherOf(userId).schedule(() -> flush(userId, cell), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 종료 중이면 close() 가 기록되지 않은 셀을 마저 저장
+            log.debug("종료 중이라 잔고 저장을 다시 예약하지 못했습니다: userId={}", userId);
+        }
+    }
+
+    private ScheduledExecutorService flusherOf(long userId) {
+        return flushers.get(flusherIndexOf(userId));
+    }
+
+    private int evictionSlotOf(long userId) {
+        return Math.floorMod(Long.hashCode(userId), EVICTION_SLOTS);
+    }
+
+    private int flusherIndexOf(long userId) {
+        return Math.floorMod(Long.hashCode(userId), flushers.size());
+    }
+
+    public Stats stats() {
+        return new Stats(cells.size(), casRetries.sum(), flushes.sum(), flushFailures.sum(), evictions.sum());
+    }
+
+    @Override
+    public void close() {
+        for (ExecutorService flusher : flushers) {
+            flusher.shutdown();
+        }
+        for (ExecutorService flusher : flushers) {
+            try {
+                flusher.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        // 예약되지 못했거나 저장에 실패한 잔고가 있으면 호출 스레드에서 마저 기록
+        cells.forEach((userId, cell) -> {
+            if (cell.balance.get() != cell.persisted) {
+                flush(userId, cell);
+            }
+        });
+    }
+
+    /**
+     * 잔고 셀 수, compare-and-set 재시도 횟수, 테이블 저장 횟수/실패 횟수, 내보낸 셀 수
+     */
+    public record Stats(int users, long casRetries, long flushes, long flushFailures, long evictions) {
+    }
+
+    private static class Cell {
+        private final AtomicLong balance;
+        private final AtomicBoolean flushScheduled = new AtomicBoolean();
+        private volatile long updateMillis;
+        // 테이블에 마지막으로 기록된 잔고 (작업 스레드만 갱신)
+        private volatile long persisted;
+        // 연속 저장 실패 횟수 (작업 스레드만 사용)
+        private int failures;
+
+        private Cell(long balance, long updateMillis) {
+            this.balance = new AtomicLong(balance);
+            this.updateMillis = updateMillis;
+            this.persisted = balance;
+        }
+    }
+}
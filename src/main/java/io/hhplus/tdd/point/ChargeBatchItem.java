@@ -0,0 +1,7 @@
+package io.hhplus.tdd.point;
+
+public record ChargeBatchItem(
+        long userId,
+        long amount
+) {
+}
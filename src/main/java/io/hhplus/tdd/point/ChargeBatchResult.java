@@ -0,0 +1,18 @@
+package io.hhplus.tdd.point;
+
+public record ChargeBatchResult(
+        long userId,
+        long amount,
+        boolean success,
+        UserPoint userPoint,
+        String message
+) {
+
+    public static ChargeBatchResult succeeded(ChargeBatchItem item, UserPoint userPoint) {
+        return new ChargeBatchResult(item.userId(), item.amount(), true, userPoint, null);
+    }
+
+    public static ChargeBatchResult failed(ChargeBatchItem item, String message) {
+        return new ChargeBatchResult(item.userId(), item.amount(), false, null, message);
+    }
+}
@@ -0,0 +1,240 @@
+package io.hhplus.tdd.point;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * 요청이 몰리는 사용자(top-K)를 찾고, 그 사용자들의 대기 중인 요청 수와 락 대기 시간을 기록하는 추적기
+ * - 요청 수는 space-saving 알고리즘으로 세어 최대 capacity 명만 보관합니다. (자리가 없으면 가장 적게 센 사용자를 밀어내고 그 수를 이어받음)
+ * - 요청 스레드는 사용자 ID 를 스레드별 버퍼에 적기만 하고, 버퍼가 일정량 차면 한 스레드가 락을 얻어 모아서 반영합니다.
+ *   (락을 얻지 못한 스레드는 기다리지 않으며, 버퍼가 넘치면 일부 기록은 버려질 수 있음 - 근사치)
+ * - 일정 주기마다 모든 수를 절반으로 줄여, 지나간 인기 사용자보다 지금 몰리는 사용자가 위로 오게 합니다.
+ * - 대기 중인 요청 수와 락 대기 시간은 현재 top-K 에 든 사용자만 기록합니다.
+ */
+public class HotUserTracker {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    // 버퍼 하나의 크기와, 반영을 시도하는 기록 간격 (2의 거듭제곱)
+    private static final int BUFFER_SIZE = 1024;
+    private static final int DRAIN_INTERVAL = 64;
+
+    private final int capacity;
+    private final long decayIntervalNanos;
+    private final LongSupplier clock;
+
+    private final Buffer[] buffers;
+
+    // 아래 세 필드는 drainLock 으로 보호
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Map<Long, Counter> counters = new HashMap<>();
+    private long lastDecayNanos;
+
+    // 현재 top-K 에 든 사용자의 경합 정보 (요청 스레드가 락 없이 조회)
+    private final ConcurrentHashMap<Long, Contention> tracked = new ConcurrentHashMap<>();
+
+    public HotUserTracker(int capacity, long decayIntervalMillis) {
+        this(capacity, decayIntervalMillis, System::nanoTime);
+    }
+
+    public HotUserTracker(int capacity, long decayIntervalMillis, LongSupplier clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("추적할 사용자 수는 0보다 커야 합니다: " + capacity);
+        }
+        this.capacity = capacity;
+        this.decayIntervalNanos = TimeUnit.MILLISECONDS.toNanos(decayIntervalMillis);
+        this.clock = clock;
+        this.lastDecayNanos = clock.getAsLong();
+        int bufferCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2);
+        this.buffers = new Buffer[bufferCount];
+        for (int i = 0; i < bufferCount; i++) {
+            buffers[i] = new Buffer();
+        }
+    }
+
+    // 조회 요청 1건 기록
+    public void record(long userId) {
+        Buffer buffer = buffers[(int) Thread.currentThread().getId() & (buffers.length - 1)];
+        if (buffer.add(userId)) {
+            tryDrain();
+        }
+    }
+
+    // 충전/사용 요청 시작 (요청 1건 기록, 추적 중인 사용자면 대기 중인 요청 수 증가)
+    public void enter(long userId) {
+        record(userId);
+        Contention contention = tracked.get(userId);
+        if (contention != null) {
+            contention.queued.incrementAndGet();
+        }
+    }
+
+    // 충전/사용 요청 종료 (enter 이후 추적이 시작된 사용자는 음수가 되지 않도록 0 에서 멈춤)
+    public void exit(long userId) {
+        Contention contention = tracked.get(userId);
+        if (contention != null) {
+            contention.queued.getAndUpdate(queued -> Math.max(0, queued - 1));
+        }
+    }
+
+    public void lockWaited(long userId, long waitNanos) {
+        Contention contention = tracked.get(userId);
+        if (contention != null) {
+            contention.lockWaits.increment();
+            contention.lockWaitNanos.add(waitNanos);
+            contention.maxLockWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        }
+    }
+
+    // 요청 수가 많은 순으로 최대 limit 명 (버퍼에 남은 기록을 먼저 반영)
+    public List<HotUser> top(int limit) {
+        drainLock.lock();
+        List<Counter> sorted;
+        try {
+            drainAll();
+            sorted = new ArrayList<>(counters.values());
+        } finally {
+            drainLock.unlock();
+        }
+        sorted.sort(Comparator.comparingLong((Counter counter) -> counter.count).reversed());
+        List<HotUser> hotUsers = new ArrayList<>(Math.min(limit, sorted.size()));
+        for (Counter counter : sorted.subList(0, Math.min(limit, sorted.size()))) {
+            Contention contention = tracked.get(counter.userId);
+            long lockWaits = contention == null ? 0 : contention.lockWaits.sum();
+            hotUsers.add(new HotUser(
+                    counter.userId,
+                    counter.count,
+                    counter.error,
+                    contention == null ? 0 : contention.queued.get(),
+                    lockWaits,
+                    lockWaits == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(contention.lockWaitNanos.sum() / lockWaits),
+                    contention == null ? 0 : TimeUnit.NANOSECONDS.toMicros(contention.maxLockWaitNanos.get())));
+        }
+        return hotUsers;
+    }
+
+    private void tryDrain() {
+        if (drainLock.tryLock()) {
+            try {
+                drainAll();
+            } finally {
+                drainLock.unlock();
+            }
+        }
+    }
+
+    private void drainAll() {
+        long now = clock.getAsLong();
+        if (decayIntervalNanos > 0 && now - lastDecayNanos >= decayIntervalNanos) {
+            decay();
+            lastDecayNanos = now;
+        }
+        for (Buffer buffer : buffers) {
+            buffer.drainTo(this::increment);
+        }
+    }
+
+    // space-saving: 보관 중이면 1 증가, 자리가 있으면 새로 보관, 없으면 가장 적게 센 사용자를 밀어내고 그 수 + 1 로 보관
+    private void increment(long userId) {
+        Counter counter = counters.get(userId);
+        if (counter != null) {
+            counter.count++;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(userId, new Counter(userId, 1, 0));
+            tracked.put(userId, new Contention());
+            return;
+        }
+        Counter min = null;
+        for (Counter candidate : counters.values()) {
+            if (min == null || candidate.count < min.count) {
+                min = candidate;
+            }
+        }
+        counters.remove(min.userId);
+        tracked.remove(min.userId);
+        counters.put(userId, new Counter(userId, min.count + 1, min.count));
+        tracked.put(userId, new Contention());
+    }
+
+    private void decay() {
+        for (Counter counter : counters.values()) {
+            counter.count >>>= 1;
+            counter.error >>>= 1;
+        }
+    }
+
+    /**
+     * 추적 중인 사용자 한 명의 요청 수와 경합 정보
+     * - count : 추정 요청 수 (실제 요청 수는 count - error 이상 count 이하)
+     * - queued : 지금 처리 중이거나 대기 중인 충전/사용 요청 수
+     * - lockWaits / avgLockWaitMicros / maxLockWaitMicros : 추적을 시작한 뒤의 사용자 락 획득 횟수와 대기 시간
+     */
+    public record HotUser(long userId, long count, long error, int queued, long lockWaits, long avgLockWaitMicros, long maxLockWaitMicros) {
+    }
+
+    private static class Counter {
+        private final long userId;
+        private long count;
+        private long error;
+
+        private Counter(long userId, long count, long error) {
+            this.userId = userId;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    private static class Contention {
+        private final AtomicInteger queued = new AtomicInteger();
+        private final LongAdder lockWaits = new LongAdder();
+        private final LongAdder lockWaitNanos = new LongAdder();
+        private final AtomicLong maxLockWaitNanos = new AtomicLong();
+    }
+
+    // 여러 스레드가 쓰고 반영하는 스레드 하나가 읽는 고정 크기 버퍼 (가득 차면 오래된 기록을 덮어씀)
+    private static class Buffer {
+        private final AtomicLongArray slots = new AtomicLongArray(BUFFER_SIZE);
+        private final AtomicLong writeIndex = new AtomicLong();
+        private long readIndex;
+
+        private Buffer() {
+            for (int i = 0; i < BUFFER_SIZE; i++) {
+                slots.set(i, EMPTY);
+            }
+        }
+
+        // 기록하고, 반영을 시도할 차례면 true
+        private boolean add(long userId) {
+            long index = writeIndex.getAndIncrement();
+            slots.set((int) index & (BUFFER_SIZE - 1), userId);
+            return (index & (DRAIN_INTERVAL - 1)) == DRAIN_INTERVAL - 1;
+        }
+
+        // 반영하는 스레드만 호출 (아직 값이 쓰이지 않은 칸은 건너뜀)
+        private void drainTo(LongConsumer consumer) {
+            long written = writeIndex.get();
+            long from = Math.max(readIndex, written - BUFFER_SIZE);
+            for (long index = from; index < written; index++) {
+                long userId = slots.getAndSet((int) index & (BUFFER_SIZE - 1), EMPTY);
+                if (userId != EMPTY) {
+                    consumer.accept(userId);
+                }
+            }
+            readIndex = written;
+        }
+    }
+}
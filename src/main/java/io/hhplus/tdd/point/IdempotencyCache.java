@@ -0,0 +1,207 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key 별 충전/사용 결과 캐시
+ * - 같은 키(사용자, 충전/사용 구분 포함)로 다시 들어온 요청은 PointService 를 거치지 않고 저장된 결과를 반환합니다.
+ * - 원래 요청이 아직 처리 중이면 사용자 락 대기열에 줄 서지 않고 원래 요청의 결과를 함께 기다립니다.
+ * - 처리되지 않은 것이 확실한 실패(검증 실패, 실행 전 거절)는 저장하지 않으므로, 같은 키로 다시 시도하면 새로 처리합니다.
+ *   그 밖의 실패는 반영 여부를 알 수 없으므로 결과처럼 보관해, 같은 키로 다시 시도해도 두 번 반영되지 않게 합니다.
+ * - 비동기 요청은 마감 시간이 적용되지 않은 원래 작업을 보관하므로, 마감 시간이 지난 뒤 재시도하면 처리 중인 원래 작업을 기다립니다.
+ * - 결과는 완료 후 ttl 동안 보관하고, 최대 크기를 넘으면 먼저 들어온 키부터 제거합니다.
+ *   처리 중인 키는 제거하지 않으며 (제거하면 재시도가 두 번 반영됨), 처리 중인 키만으로 가득 차면 새 키를 429 로 거절합니다.
+ */
+@Component
+public class IdempotencyCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    // 들어온 순서대로의 항목 (제거 대상을 고를 때 사용하며, 맵에서 지운 항목은 여기서도 지움)
+    private final ConcurrentLinkedQueue<Entry> order = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder joins = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public IdempotencyCache(PointProperties properties) {
+        this(properties.getIdempotency().getMaxSize(), properties.getIdempotency().getTtlMillis(), System::nanoTime);
+    }
+
+    public IdempotencyCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.clock = clock;
+    }
+
+    // 처음 들어온 키면 action 을 호출 스레드에서 실행하고, 이미 있는 키면 저장된(또는 처리 중인) 결과를 반환
+    public UserPoint execute(String key, long userId, TransactionType type, long amount, Supplier<UserPoint> action) {
+        CompletableFuture<UserPoint> result = new CompletableFuture<>();
+        CompletableFuture<UserPoint> existing = register(key, userId, type, amount, result);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            UserPoint userPoint = action.get();
+            result.complete(userPoint);
+            return userPoint;
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // 비동기 API 용: action 이 반환한 결과를 그대로 공유 (마감 시간은 호출자가 결과의 복사본에 적용)
+    public CompletableFuture<UserPoint> executeAsync(String key, long userId, TransactionType type, long amount,
+                                                     Supplier<CompletableFuture<UserPoint>> action) {
+        CompletableFuture<UserPoint> result = new CompletableFuture<>();
+        CompletableFuture<UserPoint> existing = register(key, userId, type, amount, result);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            action.get().whenComplete((userPoint, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                } else {
+                    result.complete(userPoint);
+                }
+            });
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    public Stats stats() {
+        return new Stats(executions.sum(), replays.sum(), joins.sum(), evictions.sum(), entries.size());
+    }
+
+    // 키를 등록하고 null 을 반환하거나, 이미 등록된 키면 그 결과를 반환
+    private CompletableFuture<UserPoint> register(String key, long userId, TransactionType type, long amount, CompletableFuture<UserPoint> result) {
+        if (key == null || key.isBlank() || key.length() > 255) {
+            throw new IllegalArgumentException("Idempotency-Key 는 1자 이상 255자 이하로 가능합니다.");
+        }
+        Key cacheKey = new Key(key, userId, type);
+        Entry entry = new Entry(cacheKey, amount, result);
+        while (true) {
+            Entry existing = entries.putIfAbsent(cacheKey, entry);
+            if (existing == null) {
+                break;
+            }
+            if (existing.isExpired(clock.getAsLong())) {
+                if (entries.remove(cacheKey, existing)) {
+                    order.remove(existing);
+                }
+                continue;
+            }
+            if (existing.amount != amount) {
+                throw new IllegalArgumentException("같은 Idempotency-Key 로 다른 금액을 요청할 수 없습니다.");
+            }
+            (existing.result.isDone() ? replays : joins).increment();
+            return existing.result;
+        }
+
+        order.add(entry);
+        if (!evictIfNecessary()) {
+            // 이미 기다리기 시작한 요청도 같은 예외를 받음
+            PointOverloadedException overloaded = new PointOverloadedException(PointOverloadedException.Reason.IDEMPOTENCY_FULL,
+                    "처리 중인 요청이 많아 잠시 후 다시 시도해 주세요.", 1);
+            if (entries.remove(cacheKey, entry)) {
+                order.remove(entry);
+            }
+            result.completeExceptionally(overloaded);
+            throw overloaded;
+        }
+        executions.increment();
+        result.whenComplete((userPoint, error) -> {
+            if (error != null && notApplied(error)) {
+                // 처리되지 않은 실패는 남기지 않아 같은 키로 다시 시도할 수 있게 함 (이미 기다리던 요청은 같은 예외를 받음)
+                if (entries.remove(cacheKey, entry)) {
+                    order.remove(entry);
+                }
+            } else {
+                entry.expiresAt = clock.getAsLong() + ttlNanos;
+            }
+        });
+        return null;
+    }
+
+    // 잔고에 반영되기 전에 끝난 것이 확실한 실패 (검증 실패, 과부하로 인한 거절, 작업 스레드 풀 포화)
+    private static boolean notApplied(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof IllegalArgumentException
+                || cause instanceof PointOverloadedException
+                || cause instanceof RejectedExecutionException;
+    }
+
+    // 만료된 키와 최대 크기를 넘는 만큼의 오래된 키를 들어온 순서대로 제거 (처리 중인 키는 건너뜀)
+    // 처리 중인 키만 남아 최대 크기 이하로 줄이지 못하면 false 반환
+    private boolean evictIfNecessary() {
+        long now = clock.getAsLong();
+        Iterator<Entry> iterator = order.iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.expiresAt == Long.MAX_VALUE) {
+                continue;
+            }
+            if (!entry.isExpired(now) && entries.size() <= maxSize) {
+                return true;
+            }
+            // 같은 키의 다른 항목이 들어와 있으면 지우지 않음
+            iterator.remove();
+            if (entries.remove(entry.key, entry)) {
+                evictions.increment();
+            }
+        }
+        return entries.size() <= maxSize;
+    }
+
+    /**
+     * 새로 처리한 요청 수, 저장된 결과를 반환한 요청 수, 처리 중인 원래 요청을 기다린 요청 수, 제거된 키 수, 현재 키 수
+     */
+    public record Stats(long executions, long replays, long joins, long evictions, int size) {
+    }
+
+    private record Key(String key, long userId, TransactionType type) {
+    }
+
+    private static class Entry {
+        private final Key key;
+        private final long amount;
+        private final CompletableFuture<UserPoint> result;
+
+        // 처리 중에는 만료되지 않음
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private Entry(Key key, long amount, CompletableFuture<UserPoint> result) {
+            this.key = key;
+            this.amount = amount;
+            this.result = result;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt != Long.MAX_VALUE && now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 운영자용 포인트 조회 API
+ */
+@RestController
+@RequestMapping("/admin/point")
+public class PointAdminController {
+
+    // 요청이 몰리는 사용자 조회 시 최대 건수
+    private static final int MAX_HOT_USERS = 1000;
+
+    private final PointService pointService;
+
+    public PointAdminController(PointService pointService) {
+        this.pointService = pointService;
+    }
+
+    /**
+     * 요청 수가 많은 사용자와 그 사용자의 대기 중인 충전/사용 요청 수, 락 대기 시간을 반환합니다.
+     * (point.hot-users.enabled 가 꺼져 있으면 빈 목록)
+     */
+    @GetMapping("hot-users")
+    public List<HotUserTracker.HotUser> hotUsers(@RequestParam(defaultValue = "10") int limit) {
+        if (limit <= 0 || limit > MAX_HOT_USERS) {
+            throw new IllegalArgumentException("limit 은 1 이상 " + MAX_HOT_USERS + " 이하로 가능합니다.");
+        }
+        return pointService.getHotUsers(limit);
+    }
+}
@@ -0,0 +1,72 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 요청 스레드를 붙잡지 않도록 PointService 호출을 전용 작업 스레드 풀에서 실행하는 서비스
+ * - 결과는 CompletableFuture 로 반환하며, 컨트롤러가 그대로 반환하면 Spring MVC 가 비동기 요청으로 처리합니다.
+ * - 작업 스레드도 테이블 호출 동안 블로킹되므로 동시에 처리되는 요청 수는 작업 스레드 수(point.async.workers)를 넘지 않습니다.
+ *   처리량 상한은 작업 스레드 수 ÷ 테이블 지연 시간이며 (예: 200개 ÷ 평균 약 0.25초 ≈ 초당 800건), 요청 스레드를 비워 주는 것일 뿐 상한을 올리지는 않습니다.
+ * - 요청마다 마감 시간(point.async.timeout-millis)이 있고, 넘기면 TimeoutException 으로 완료됩니다.
+ * - 작업 스레드 풀의 대기열이 가득 차면 RejectedExecutionException 으로 바로 완료됩니다.
+ * - 마감 시간이 지나도 이미 시작된 충전/사용은 취소되지 않으므로, 호출자는 잔고를 다시 조회해 결과를 확인해야 합니다.
+ *   (마감 시간은 작업의 복사본에만 적용되므로, start* 로 얻은 원래 작업은 실제 처리 결과로 완료됩니다.)
+ */
+@Service
+public class PointAsyncService {
+
+    private final PointService pointService;
+    private final ExecutorService pointAsyncExecutor;
+    private final PointProperties properties;
+
+    public PointAsyncService(PointService pointService, @Qualifier("pointAsyncExecutor") ExecutorService pointAsyncExecutor, PointProperties properties) {
+        this.pointService = pointService;
+        this.pointAsyncExecutor = pointAsyncExecutor;
+        this.properties = properties;
+    }
+
+    public CompletableFuture<UserPoint> getUserPoint(long id) {
+        return submit(() -> pointService.getUserPoint(id));
+    }
+
+    public CompletableFuture<List<PointHistory>> getPointHistory(long userId) {
+        return submit(() -> pointService.getPointHistory(userId));
+    }
+
+    public CompletableFuture<List<PointHistory>> getPointHistory(long userId, long afterId, int limit) {
+        return submit(() -> pointService.getPointHistory(userId, afterId, limit));
+    }
+
+    public CompletableFuture<UserPoint> chargeAndRecord(long userId, long amount) {
+        return withDeadline(startChargeAndRecord(userId, amount));
+    }
+
+    public CompletableFuture<UserPoint> useAndRecord(long userId, long amount) {
+        return withDeadline(startUseAndRecord(userId, amount));
+    }
+
+    // 마감 시간 없이 시작한 작업 (실제로 처리가 끝나야 완료되므로 Idempotency-Key 결과처럼 공유할 때 사용)
+    public CompletableFuture<UserPoint> startChargeAndRecord(long userId, long amount) {
+        return CompletableFuture.supplyAsync(() -> pointService.chargeAndRecord(userId, amount), pointAsyncExecutor);
+    }
+
+    public CompletableFuture<UserPoint> startUseAndRecord(long userId, long amount) {
+        return CompletableFuture.supplyAsync(() -> pointService.useAndRecord(userId, amount), pointAsyncExecutor);
+    }
+
+    // 작업의 복사본에 마감 시간을 적용 (마감 시간이 지나도 원래 작업은 TimeoutException 으로 바뀌지 않음)
+    public <T> CompletableFuture<T> withDeadline(CompletableFuture<T> task) {
+        return task.copy().orTimeout(properties.getAsync().getTimeoutMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return withDeadline(CompletableFuture.supplyAsync(task, pointAsyncExecutor));
+    }
+}
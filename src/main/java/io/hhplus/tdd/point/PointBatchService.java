@@ -0,0 +1,68 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+/**
+ * 여러 사용자에 대한 충전 요청을 한 번에 처리하는 일괄 충전 서비스
+ * - 요청을 사용자별로 묶어, 서로 다른 사용자의 묶음은 작업 스레드 풀에서 병렬로 처리합니다.
+ * - 같은 사용자의 요청은 한 묶음 안에서 요청 순서대로 처리됩니다.
+ * - 항목별 실패는 다른 항목에 영향을 주지 않고 해당 항목의 결과로만 반환됩니다.
+ */
+@Service
+public class PointBatchService {
+
+    private final PointService pointService;
+    private final ExecutorService pointBatchExecutor;
+    private final PointProperties properties;
+
+    public PointBatchService(PointService pointService, @Qualifier("pointBatchExecutor") ExecutorService pointBatchExecutor, PointProperties properties) {
+        this.pointService = pointService;
+        this.pointBatchExecutor = pointBatchExecutor;
+        this.properties = properties;
+    }
+
+    // 결과는 요청 순서와 같은 순서로 반환 (validator 가 던진 예외는 해당 항목의 실패 결과가 됨)
+    public List<ChargeBatchResult> chargeAll(List<ChargeBatchItem> items, Consumer<ChargeBatchItem> validator) {
+        int maxItems = properties.getBatch().getMaxItems();
+        if (items == null || items.isEmpty() || items.size() > maxItems) {
+            throw new IllegalArgumentException("일괄 충전은 1건 이상 " + maxItems + "건 이하로 가능합니다.");
+        }
+
+        // 사용자별로 요청 위치를 모음 (같은 사용자의 요청 순서 유지)
+        Map<Long, List<Integer>> positionsByUser = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            positionsByUser.computeIfAbsent(items.get(i).userId(), id -> new ArrayList<>()).add(i);
+        }
+
+        ChargeBatchResult[] results = new ChargeBatchResult[items.size()];
+        List<CompletableFuture<Void>> futures = new ArrayList<>(positionsByUser.size());
+        for (List<Integer> positions : positionsByUser.values()) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (int position : positions) {
+                    results[position] = charge(items.get(position), validator);
+                }
+            }, pointBatchExecutor));
+        }
+        // 모든 사용자의 묶음이 끝날 때까지 대기 (전체 소요 시간은 가장 오래 걸린 사용자 묶음에 가까움)
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        return List.of(results);
+    }
+
+    private ChargeBatchResult charge(ChargeBatchItem item, Consumer<ChargeBatchItem> validator) {
+        try {
+            validator.accept(item);
+            return ChargeBatchResult.succeeded(item, pointService.chargeAndRecord(item.userId(), item.amount()));
+        } catch (RuntimeException e) {
+            return ChargeBatchResult.failed(item, e.getMessage());
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package io.hhplus.tdd.point;
 
-import io.hhplus.tdd.database.PointHistoryTable;
-import io.hhplus.tdd.database.UserPointTable;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/point")
@@ -14,15 +16,39 @@ public class PointController {
 
     private static final Logger log = LoggerFactory.getLogger(PointController.class);
 
+    // 내역 페이지 조회 시 기본/최대 건수
+    private static final int DEFAULT_HISTORY_LIMIT = 100;
+    private static final int MAX_HISTORY_LIMIT = 1000;
+
+    // 내역 스트리밍 시 한 번에 읽어 쓰는 건수
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    // 충전/사용 재시도 시 같은 결과를 받기 위한 요청 헤더
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     /**
      * TODO - 특정 유저의 포인트를 조회하는 기능을 작성해주세요.
      */
     private final PointService pointService;
 
-    public PointController() {
-        UserPointTable userPointTable = new UserPointTable();
-        PointHistoryTable pointHistoryTable = new PointHistoryTable();
-        this.pointService = new PointService(userPointTable, pointHistoryTable);
+    private final PointBatchService pointBatchService;
+
+    private final PointLookupService pointLookupService;
+
+    private final PointAsyncService pointAsyncService;
+
+    private final IdempotencyCache idempotencyCache;
+
+    private final ObjectMapper objectMapper;
+
+    public PointController(PointService pointService, PointBatchService pointBatchService, PointLookupService pointLookupService,
+                           PointAsyncService pointAsyncService, IdempotencyCache idempotencyCache, ObjectMapper objectMapper) {
+        this.pointService = pointService;
+        this.pointBatchService = pointBatchService;
+        this.pointLookupService = pointLookupService;
+        this.pointAsyncService = pointAsyncService;
+        this.idempotencyCache = idempotencyCache;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("{id}")
@@ -33,46 +59,219 @@ public class PointController {
         return userPoint;
     }
 
+    /**
+     * 여러 유저의 포인트를 동시에 조회합니다. (예: /point?ids=1,2,3)
+     * 마감 시간 안에 조회되지 않은 유저는 전체 실패 대신 timedOut 목록으로 반환합니다.
+     */
+    @GetMapping
+    public UserPointLookupResult points(@RequestParam List<Long> ids) {
+        return lookup(ids);
+    }
+
+    /**
+     * 쿼리 문자열에 담기 어려운 긴 ID 목록을 본문으로 받아 조회합니다.
+     */
+    @PostMapping("lookup")
+    public UserPointLookupResult lookupPoints(@RequestBody List<Long> ids) {
+        return lookup(ids);
+    }
+
+    private UserPointLookupResult lookup(List<Long> ids) {
+        log.info("points size: {}", ids == null ? 0 : ids.size());
+        if (ids != null) {
+            for (Long id : ids) {
+                // null 원소는 언박싱 NPE(500) 대신 잘못된 요청(400)으로 거절합니다.
+                if (id == null) {
+                    throw new IllegalArgumentException("유저 ID 목록에 빈 값이 있습니다.");
+                }
+                validateUserId(id);
+            }
+        }
+        UserPointLookupResult result = pointLookupService.getUserPoints(ids);
+        log.info("points found: {}, timedOut: {}, failed: {}", result.points().size(), result.timedOut().size(), result.failed().size());
+        return result;
+    }
+
     /**
      * TODO - 특정 유저의 포인트 충전/이용 내역을 조회하는 기능을 작성해주세요.
+     * from/to(epoch millis, to 는 미포함)나 order(asc/desc)가 있으면 수정 시각 순서로 limit 건을 반환합니다.
+     * (예: 최근 10건은 ?order=desc&limit=10)
      */
     @GetMapping("{id}/histories")
-    public List<PointHistory> history(@PathVariable long id) {
-        log.info("history id: {}", id);
-        List<PointHistory> pointHistories = pointService.getPointHistory(id);
-        log.info("history pointHistories: {}", pointHistories);
+    public List<PointHistory> history(
+            @PathVariable long id,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(required = false) String order
+    ) {
+        log.info("history id: {}, after: {}, limit: {}, from: {}, to: {}, order: {}", id, after, limit, from, to, order);
+        List<PointHistory> pointHistories;
+        if (from != null || to != null || order != null) {
+            // 시각 범위 조회
+            if (after != null) {
+                throw new IllegalArgumentException("after 는 from, to, order 와 함께 사용할 수 없습니다.");
+            }
+            long fromMillis = from == null ? 0 : from;
+            long toMillis = to == null ? Long.MAX_VALUE : to;
+            if (fromMillis > toMillis) {
+                throw new IllegalArgumentException("from 은 to 보다 클 수 없습니다.");
+            }
+            pointHistories = pointService.getPointHistory(id, fromMillis, toMillis, isDescending(order), validateLimit(limit));
+        } else {
+            // 커서 파라미터가 없으면 전체 내역 반환
+            pointHistories = after == null && limit == null
+                    ? pointService.getPointHistory(id)
+                    : pointService.getPointHistory(id, after == null ? 0 : after, validateLimit(limit));
+        }
+        log.info("history size: {}", pointHistories.size());
+        log.debug("history pointHistories: {}", pointHistories);
         return pointHistories;
     }
 
+    /**
+     * 특정 유저의 충전/사용별 건수와 금액 합계를 반환합니다.
+     * 내역을 기록할 때 함께 갱신한 합계를 읽으므로 내역 수와 관계없이 일정한 시간에 응답합니다.
+     */
+    @GetMapping("{id}/summary")
+    public PointSummary summary(@PathVariable long id) {
+        log.info("summary id: {}", id);
+        return pointService.getPointSummary(id);
+    }
+
+    /**
+     * 특정 유저의 포인트 내역을 NDJSON 으로 한 줄씩 내려줍니다.
+     * 내역을 일정 건수씩 읽어 바로 쓰기 때문에 내역 수와 관계없이 요청당 메모리 사용량이 일정합니다.
+     */
+    @GetMapping(value = "{id}/histories/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamHistory(@PathVariable long id) {
+        log.info("streamHistory id: {}", id);
+        return outputStream -> {
+            long cursor = 0;
+            List<PointHistory> chunk;
+            do {
+                chunk = pointService.getPointHistory(id, cursor, STREAM_CHUNK_SIZE);
+                for (PointHistory pointHistory : chunk) {
+                    outputStream.write(objectMapper.writeValueAsBytes(pointHistory));
+                    outputStream.write('\n');
+                    cursor = pointHistory.id();
+                }
+                outputStream.flush();
+            } while (chunk.size() == STREAM_CHUNK_SIZE);
+        };
+    }
+
     /**
      * TODO - 특정 유저의 포인트를 충전하는 기능을 작성해주세요.
+     * Idempotency-Key 헤더가 있으면 같은 키로 재시도한 요청에는 처음 요청의 결과를 그대로 반환합니다. (charge/use 공통)
      */
     @PatchMapping("{id}/charge")
-    public UserPoint charge(@PathVariable long id, @RequestBody long amount) {
-        log.info("charge id: {}, amount: {}", id, amount);
+    public UserPoint charge(
+            @PathVariable long id,
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey
+    ) {
+        log.info("charge id: {}, amount: {}, idempotencyKey: {}", id, amount, idempotencyKey);
 
         validateAmount(amount);
         validateUserId(id);
 
-        UserPoint userPoint = pointService.charge(id, amount);
+        UserPoint userPoint = idempotencyKey == null
+                ? pointService.chargeAndRecord(id, amount)
+                : idempotencyCache.execute(idempotencyKey, id, TransactionType.CHARGE, amount, () -> pointService.chargeAndRecord(id, amount));
         log.info("charge userPoint: {}", userPoint);
         return userPoint;
     }
 
+    /**
+     * 여러 유저의 포인트를 한 번에 충전합니다.
+     * 서로 다른 유저는 병렬로, 같은 유저는 요청 순서대로 처리하며 항목별 성공/실패 결과를 요청 순서대로 반환합니다.
+     */
+    @PostMapping("charge/batch")
+    public List<ChargeBatchResult> chargeBatch(@RequestBody List<ChargeBatchItem> items) {
+        log.info("chargeBatch size: {}", items == null ? 0 : items.size());
+
+        List<ChargeBatchResult> results = pointBatchService.chargeAll(items, item -> {
+            validateAmount(item.amount());
+            validateUserId(item.userId());
+        });
+        log.info("chargeBatch failed: {}", results.stream().filter(result -> !result.success()).count());
+        return results;
+    }
+
     /**
      * TODO - 특정 유저의 포인트를 사용하는 기능을 작성해주세요.
      */
     @PatchMapping("{id}/use")
-    public UserPoint use(@PathVariable long id, @RequestBody long amount) {
-        log.info("use id: {}, amount: {}", id, amount);
+    public UserPoint use(
+            @PathVariable long id,
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey
+    ) {
+        log.info("use id: {}, amount: {}, idempotencyKey: {}", id, amount, idempotencyKey);
 
-        pointService.use(id, amount);
-        pointService.updateHistory(id, amount, TransactionType.USE);
-        UserPoint userPoint = pointService.getUserPoint(id);
+        UserPoint userPoint = idempotencyKey == null
+                ? pointService.useAndRecord(id, amount)
+                : idempotencyCache.execute(idempotencyKey, id, TransactionType.USE, amount, () -> pointService.useAndRecord(id, amount));
         log.info("use userPoint: {}", userPoint);
         return userPoint;
     }
 
+    /**
+     * 아래 async/* API 는 위 API 와 같은 동작을 요청 스레드 밖(전용 작업 스레드 풀)에서 처리합니다.
+     * 테이블 대기 동안 요청(서블릿) 스레드는 반환되지만, 작업 스레드가 대신 테이블 호출을 기다리므로 처리량 상한은 그대로
+     * 작업 스레드 수 ÷ 테이블 지연 시간입니다. 상한을 넘는 요청은 대기열에서 기다리다 마감 시간에 503 으로 끝납니다.
+     * 마감 시간을 넘기거나 작업 스레드 풀이 가득 차면 503 을 반환합니다.
+     */
+    @GetMapping("async/{id}")
+    public CompletableFuture<UserPoint> pointAsync(@PathVariable long id) {
+        log.info("pointAsync id: {}", id);
+        return pointAsyncService.getUserPoint(id);
+    }
+
+    @GetMapping("async/{id}/histories")
+    public CompletableFuture<List<PointHistory>> historyAsync(
+            @PathVariable long id,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        log.info("historyAsync id: {}, after: {}, limit: {}", id, after, limit);
+        return after == null && limit == null
+                ? pointAsyncService.getPointHistory(id)
+                : pointAsyncService.getPointHistory(id, after == null ? 0 : after, validateLimit(limit));
+    }
+
+    @PatchMapping("async/{id}/charge")
+    public CompletableFuture<UserPoint> chargeAsync(
+            @PathVariable long id,
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey
+    ) {
+        log.info("chargeAsync id: {}, amount: {}, idempotencyKey: {}", id, amount, idempotencyKey);
+
+        validateAmount(amount);
+        validateUserId(id);
+
+        return idempotencyKey == null
+                ? pointAsyncService.chargeAndRecord(id, amount)
+                : pointAsyncService.withDeadline(idempotencyCache.executeAsync(idempotencyKey, id, TransactionType.CHARGE, amount,
+                        () -> pointAsyncService.startChargeAndRecord(id, amount)));
+    }
+
+    @PatchMapping("async/{id}/use")
+    public CompletableFuture<UserPoint> useAsync(
+            @PathVariable long id,
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey
+    ) {
+        log.info("useAsync id: {}, amount: {}, idempotencyKey: {}", id, amount, idempotencyKey);
+        return idempotencyKey == null
+                ? pointAsyncService.useAndRecord(id, amount)
+                : pointAsyncService.withDeadline(idempotencyCache.executeAsync(idempotencyKey, id, TransactionType.USE, amount,
+                        () -> pointAsyncService.startUseAndRecord(id, amount)));
+    }
+
     private void validateAmount(long amount) {
         if (amount < 0) {
             throw new IllegalArgumentException("충전 금액은 0보다 커야 합니다.");
@@ -85,6 +284,26 @@ public class PointController {
         }
     }
 
+    private int validateLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_HISTORY_LIMIT;
+        }
+        if (limit <= 0 || limit > MAX_HISTORY_LIMIT) {
+            throw new IllegalArgumentException("조회 건수는 1 이상 1,000 이하로 가능합니다.");
+        }
+        return limit;
+    }
+
+    private boolean isDescending(String order) {
+        if (order == null || order.equalsIgnoreCase("asc")) {
+            return false;
+        }
+        if (order.equalsIgnoreCase("desc")) {
+            return true;
+        }
+        throw new IllegalArgumentException("order 는 asc 또는 desc 만 가능합니다.");
+    }
+
     private void validateUserId(long id) {
         if (id < 0) {
             throw new IllegalArgumentException("유저 ID는 0보다 커야 합니다.");
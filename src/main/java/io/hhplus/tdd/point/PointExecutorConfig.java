@@ -0,0 +1,50 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 포인트 API 가 요청 스레드 밖에서 작업을 나누어 처리할 때 사용하는 작업 스레드 풀
+ * - 풀 크기는 설정값으로 고정되어 요청 크기와 관계없이 동시에 실행되는 작업 수가 제한됩니다.
+ */
+@Configuration
+public class PointExecutorConfig {
+
+    // 일괄 충전용 작업 스레드 풀
+    @Bean(name = "pointBatchExecutor", destroyMethod = "shutdown")
+    public ExecutorService pointBatchExecutor(PointProperties properties) {
+        return Executors.newFixedThreadPool(properties.getBatch().getWorkers(), daemonThreads("point-batch-"));
+    }
+
+    // 다중 사용자 잔고 조회용 작업 스레드 풀 (풀 크기가 동시에 실행되는 조회 수의 상한)
+    @Bean(name = "pointLookupExecutor", destroyMethod = "shutdown")
+    public ExecutorService pointLookupExecutor(PointProperties properties) {
+        return Executors.newFixedThreadPool(properties.getLookup().getParallelism(), daemonThreads("point-lookup-"));
+    }
+
+    // 비동기 API 용 작업 스레드 풀 (대기열 크기를 제한해 넘치는 요청은 기다리지 않고 거절)
+    // 작업마다 테이블 호출 동안 스레드 하나를 점유하므로 처리량 상한은 작업 스레드 수 ÷ 테이블 지연 시간
+    @Bean(name = "pointAsyncExecutor", destroyMethod = "shutdown")
+    public ExecutorService pointAsyncExecutor(PointProperties properties) {
+        PointProperties.Async async = properties.getAsync();
+        return new ThreadPoolExecutor(async.getWorkers(), async.getWorkers(), 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(async.getQueueCapacity()), daemonThreads("point-async-"));
+    }
+
+    static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
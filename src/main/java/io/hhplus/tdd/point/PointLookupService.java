@@ -0,0 +1,72 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 여러 사용자의 잔고를 동시에 조회하는 서비스
+ * - 사용자별 조회를 작업 스레드 풀에 나누어 실행하며, 동시에 실행되는 조회 수는 풀 크기로 제한됩니다.
+ * - 전체 조회에는 마감 시간이 있으며, 마감 시간까지 끝나지 않은 사용자는 실패 대신 timedOut 으로 반환합니다.
+ */
+@Service
+public class PointLookupService {
+
+    private final PointService pointService;
+    private final ExecutorService pointLookupExecutor;
+    private final PointProperties properties;
+
+    public PointLookupService(PointService pointService, @Qualifier("pointLookupExecutor") ExecutorService pointLookupExecutor, PointProperties properties) {
+        this.pointService = pointService;
+        this.pointLookupExecutor = pointLookupExecutor;
+        this.properties = properties;
+    }
+
+    // 중복된 ID 는 한 번만 조회하고, 결과는 요청한 ID 순서대로 반환
+    public UserPointLookupResult getUserPoints(List<Long> ids) {
+        int maxIds = properties.getLookup().getMaxIds();
+        if (ids == null || ids.isEmpty() || ids.size() > maxIds) {
+            throw new IllegalArgumentException("잔고 조회는 1명 이상 " + maxIds + "명 이하로 가능합니다.");
+        }
+
+        Map<Long, CompletableFuture<UserPoint>> futures = new LinkedHashMap<>();
+        for (Long id : ids) {
+            futures.computeIfAbsent(id, userId -> CompletableFuture.supplyAsync(() -> pointService.getUserPoint(userId), pointLookupExecutor));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getLookup().getDeadlineMillis());
+        try {
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // 마감 시간 초과나 일부 실패는 사용자별 결과로 나누어 반환
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<UserPoint> points = new ArrayList<>();
+        List<Long> timedOut = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        futures.forEach((userId, future) -> {
+            if (!future.isDone()) {
+                // 아직 시작하지 않은 조회는 취소되어 실행되지 않음
+                future.cancel(false);
+                timedOut.add(userId);
+            } else if (future.isCompletedExceptionally()) {
+                failed.add(userId);
+            } else {
+                points.add(future.join());
+            }
+        });
+        return new UserPointLookupResult(points, timedOut, failed);
+    }
+}
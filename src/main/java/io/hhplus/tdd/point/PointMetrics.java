@@ -0,0 +1,127 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 포인트 서비스 지표 (/actuator/prometheus 로 노출)
+ * - point.lock.wait / point.lock.hold : 충전/사용별로 사용자 대기열에서 처리 차례를 기다린 시간과 요청 묶음을 처리한 시간
+ * - point.rejections : 거절 사유별 요청 수
+ * - point.overloads : 요청이 몰려 바로 거절한 사유별 요청 수 (429 응답)
+ * - point.requests.in_flight : 처리 중인 충전/사용 요청 수
+ * - point.history.compensations : 내역 기록 실패로 잔고를 되돌린 횟수
+ * - point.history.compensation_failures : 되돌리면 잔고 한도를 벗어나 되돌리지 못한 횟수 (잔고와 내역이 어긋남)
+ */
+public class PointMetrics {
+
+    private final Map<TransactionType, Timer> lockWait = new EnumMap<>(TransactionType.class);
+    private final Map<TransactionType, Timer> lockHold = new EnumMap<>(TransactionType.class);
+    private final Map<RejectionReason, Counter> rejections = new EnumMap<>(RejectionReason.class);
+    private final Map<PointOverloadedException.Reason, Counter> overloads = new EnumMap<>(PointOverloadedException.Reason.class);
+    private final Map<TransactionType, Counter> compensations = new EnumMap<>(TransactionType.class);
+    private final Map<TransactionType, Counter> compensationFailures = new EnumMap<>(TransactionType.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public PointMetrics(MeterRegistry registry) {
+        for (TransactionType type : TransactionType.values()) {
+            String method = type.name().toLowerCase();
+            lockWait.put(type, Timer.builder("point.lock.wait")
+                    .description("사용자 대기열에서 처리 차례를 기다린 시간")
+                    .tag("method", method)
+                    .publishPercentileHistogram()
+                    .register(registry));
+            lockHold.put(type, Timer.builder("point.lock.hold")
+                    .description("사용자 요청 묶음 처리 시간")
+                    .tag("method", method)
+                    .publishPercentileHistogram()
+                    .register(registry));
+            compensations.put(type, Counter.builder("point.history.compensations")
+                    .description("내역 기록 실패로 잔고를 되돌린 횟수")
+                    .tag("method", method)
+                    .register(registry));
+            compensationFailures.put(type, Counter.builder("point.history.compensation_failures")
+                    .description("되돌리면 잔고 한도를 벗어나 되돌리지 못한 횟수")
+                    .tag("method", method)
+                    .register(registry));
+        }
+        for (RejectionReason reason : RejectionReason.values()) {
+            rejections.put(reason, Counter.builder("point.rejections")
+                    .description("거절된 충전/사용 요청 수")
+                    .tag("reason", reason.tag)
+                    .register(registry));
+        }
+        for (PointOverloadedException.Reason reason : PointOverloadedException.Reason.values()) {
+            overloads.put(reason, overloadCounter(registry, reason));
+        }
+        Gauge.builder("point.requests.in_flight", inFlight, AtomicInteger::get)
+                .description("처리 중인 충전/사용 요청 수")
+                .register(registry);
+    }
+
+    public void recordLockWait(TransactionType type, long nanos) {
+        lockWait.get(type).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLockHold(TransactionType type, long nanos) {
+        lockHold.get(type).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // 거절 횟수를 기록하고 호출자에게 던질 예외를 반환
+    public IllegalArgumentException reject(RejectionReason reason, String message) {
+        rejections.get(reason).increment();
+        return new IllegalArgumentException(message);
+    }
+
+    // 과부하 거절 횟수를 기록하고 받은 예외를 그대로 반환
+    public PointOverloadedException overloaded(PointOverloadedException e) {
+        overloads.get(e.getReason()).increment();
+        return e;
+    }
+
+    // 같은 이름과 태그의 카운터는 레지스트리에 하나만 등록되므로 다른 곳에서도 이 메서드로 같은 카운터를 얻음
+    static Counter overloadCounter(MeterRegistry registry, PointOverloadedException.Reason reason) {
+        return Counter.builder("point.overloads")
+                .description("요청이 몰려 바로 거절한 요청 수")
+                .tag("reason", reason.tag())
+                .register(registry);
+    }
+
+    public void compensated(TransactionType type) {
+        compensations.get(type).increment();
+    }
+
+    public void compensationFailed(TransactionType type) {
+        compensationFailures.get(type).increment();
+    }
+
+    public void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    public void requestFinished() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * 요청 거절 사유
+     */
+    public enum RejectionReason {
+        INVALID_AMOUNT("invalid_amount"),
+        UNKNOWN_USER("unknown_user"),
+        MAX_BALANCE("max_balance"),
+        INSUFFICIENT_BALANCE("insufficient_balance");
+
+        private final String tag;
+
+        RejectionReason(String tag) {
+            this.tag = tag;
+        }
+    }
+}
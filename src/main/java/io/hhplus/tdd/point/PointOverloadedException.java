@@ -0,0 +1,49 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 요청이 몰려 처리하지 않고 바로 거절한 경우의 예외 (429 로 응답)
+ * - retryAfterSeconds : 다시 시도해도 되는 시점까지의 대략적인 시간
+ */
+public class PointOverloadedException extends RuntimeException {
+
+    private final Reason reason;
+    private final long retryAfterSeconds;
+
+    public PointOverloadedException(Reason reason, String message, long retryAfterSeconds) {
+        super(message);
+        this.reason = reason;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * 거절 사유
+     */
+    public enum Reason {
+        // 사용자별 요청 허용량(토큰)을 모두 사용
+        RATE_LIMITED("rate_limited"),
+        // 같은 사용자의 대기 요청 수가 최대치에 도달
+        LOCK_QUEUE_FULL("lock_queue_full"),
+        // 정해진 시간 안에 처리 차례가 오지 않음
+        LOCK_TIMEOUT("lock_timeout"),
+        // Idempotency-Key 캐시가 처리 중인 키로 가득 참
+        IDEMPOTENCY_FULL("idempotency_full");
+
+        private final String tag;
+
+        Reason(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+}
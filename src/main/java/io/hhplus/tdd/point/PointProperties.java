@@ -0,0 +1,640 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.UserPointWal;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 포인트 서비스 동작 설정 (application.yml 의 point.* 항목)
+ */
+@ConfigurationProperties(prefix = "point")
+public class PointProperties {
+
+    // 잔고 엔진 설정
+    private final Engine engine = new Engine();
+
+    // 같은 사용자에 대한 동시 충전/사용 요청을 한 번의 조회/저장으로 묶어 처리할지 여부
+    private final Combining combining = new Combining();
+
+    // 잔고 캐시 설정
+    private final Cache cache = new Cache();
+
+    // 잔고 저장소 설정
+    private final Store store = new Store();
+
+    // 잔고 영속화(스냅샷 + WAL) 설정
+    private final Persistence persistence = new Persistence();
+
+    // 포인트 내역 기록 설정
+    private final History history = new History();
+
+    // 사용자별 락 설정
+    private final Lock lock = new Lock();
+
+    // 일괄 충전 설정
+    private final Batch batch = new Batch();
+
+    // 다중 사용자 잔고 조회 설정
+    private final Lookup lookup = new Lookup();
+
+    // 비동기 API 설정
+    private final Async async = new Async();
+
+    // Idempotency-Key 결과 캐시 설정
+    private final Idempotency idempotency = new Idempotency();
+
+    // 사용자별 요청 허용량 설정
+    private final RateLimit rateLimit = new RateLimit();
+
+    // 요청이 몰리는 사용자 추적 설정
+    private final HotUsers hotUsers = new HotUsers();
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public Combining getCombining() {
+        return combining;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Store getStore() {
+        return store;
+    }
+
+    public Persistence getPersistence() {
+        return persistence;
+    }
+
+    public History getHistory() {
+        return history;
+    }
+
+    public Lock getLock() {
+        return lock;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public Lookup getLookup() {
+        return lookup;
+    }
+
+    public Async getAsync() {
+        return async;
+    }
+
+    public Idempotency getIdempotency() {
+        return idempotency;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public HotUsers getHotUsers() {
+        return hotUsers;
+    }
+
+    public static class Engine {
+
+        // locking: 사용자 락 안에서 테이블을 조회/저장, atomic: 사용자별 원자적 잔고 셀을 기준으로 처리하고 테이블에는 비동기로 저장
+        // sharded: 사용자 ID 로 나눈 샤드마다 한 스레드가 대기열의 요청을 모아 처리
+        private Type type = Type.LOCKING;
+
+        // atomic 엔진에서 테이블에 잔고를 저장하는 작업 스레드 수
+        private int flushWorkers = 4;
+
+        // sharded 엔진의 샤드(전담 스레드) 수
+        private int shards = 8;
+
+        // atomic/sharded 엔진이 메모리에 유지하는 사용자 잔고 수 상한 (넘으면 테이블에 기록된 잔고부터 내보냄, sharded 는 샤드마다 상한 / 샤드 수)
+        private int maxUsers = 100_000;
+
+        public Type getType() {
+            return type;
+        }
+
+        public void setType(Type type) {
+            this.type = type;
+        }
+
+        public int getFlushWorkers() {
+            return flushWorkers;
+        }
+
+        public void setFlushWorkers(int flushWorkers) {
+            this.flushWorkers = flushWorkers;
+        }
+
+        public int getShards() {
+            return shards;
+        }
+
+        public void setShards(int shards) {
+            this.shards = shards;
+        }
+
+        public int getMaxUsers() {
+            return maxUsers;
+        }
+
+        public void setMaxUsers(int maxUsers) {
+            this.maxUsers = maxUsers;
+        }
+
+        public enum Type {
+            LOCKING, ATOMIC, SHARDED
+        }
+    }
+
+    public static class Combining {
+
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class Cache {
+
+        // 캐시에 보관할 최대 사용자 수 (0 이하이면 캐시 사용 안 함)
+        private int maxSize = 10000;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class Store {
+
+        // table: 테이블을 그대로 사용, primitive: 조회/저장한 잔고를 박싱 없는 기본형 배열 맵에 보관 (영속화를 켜면 무시)
+        private Type type = Type.TABLE;
+
+        // primitive 저장소의 초기 용량을 정할 예상 사용자 수
+        private int expectedUsers = 10000;
+
+        public Type getType() {
+            return type;
+        }
+
+        public void setType(Type type) {
+            this.type = type;
+        }
+
+        public int getExpectedUsers() {
+            return expectedUsers;
+        }
+
+        public void setExpectedUsers(int expectedUsers) {
+            this.expectedUsers = expectedUsers;
+        }
+
+        public enum Type {
+            TABLE, PRIMITIVE
+        }
+    }
+
+    public static class Persistence {
+
+        // 잔고 변경을 WAL 과 스냅샷으로 디스크에 남기고 시작 시 복구할지 여부
+        private boolean enabled = false;
+
+        // WAL 과 스냅샷 파일을 보관할 디렉터리
+        private String directory = "data/point-balance";
+
+        // per_write: 기록마다 fsync, group: 동시에 들어온 기록을 묶어 fsync, interval: 주기적으로 fsync
+        private UserPointWal.FsyncPolicy fsync = UserPointWal.FsyncPolicy.GROUP;
+
+        // interval 정책의 fsync 주기
+        private long fsyncIntervalMillis = 100;
+
+        // 스냅샷 주기 (0 이하이면 종료 시에만 스냅샷)
+        private long snapshotIntervalMillis = 60000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public UserPointWal.FsyncPolicy getFsync() {
+            return fsync;
+        }
+
+        public void setFsync(UserPointWal.FsyncPolicy fsync) {
+            this.fsync = fsync;
+        }
+
+        public long getFsyncIntervalMillis() {
+            return fsyncIntervalMillis;
+        }
+
+        public void setFsyncIntervalMillis(long fsyncIntervalMillis) {
+            this.fsyncIntervalMillis = fsyncIntervalMillis;
+        }
+
+        public long getSnapshotIntervalMillis() {
+            return snapshotIntervalMillis;
+        }
+
+        public void setSnapshotIntervalMillis(long snapshotIntervalMillis) {
+            this.snapshotIntervalMillis = snapshotIntervalMillis;
+        }
+    }
+
+    public static class Lock {
+
+        // 락 스트라이프 수 (2의 거듭제곱, 사용자 수와 관계없이 고정)
+        private int stripes = 1024;
+
+        // 먼저 기다린 스레드가 먼저 스트라이프 락을 얻도록 할지 여부 (사용자별 대기열은 항상 도착 순서대로 처리)
+        private boolean fair = false;
+
+        // 사용자별 대기열에서 처리 차례를 기다리는 최대 시간 (넘으면 429 로 거절, 0 이면 제한 없음)
+        private long acquireTimeoutMillis = 0;
+
+        // 한 사용자의 대기열에서 처리 차례를 기다릴 수 있는 최대 요청 수 (넘으면 기다리지 않고 429 로 거절, 0 이면 제한 없음)
+        private int maxWaiters = 0;
+
+        public int getStripes() {
+            return stripes;
+        }
+
+        public void setStripes(int stripes) {
+            this.stripes = stripes;
+        }
+
+        public boolean isFair() {
+            return fair;
+        }
+
+        public void setFair(boolean fair) {
+            this.fair = fair;
+        }
+
+        public long getAcquireTimeoutMillis() {
+            return acquireTimeoutMillis;
+        }
+
+        public void setAcquireTimeoutMillis(long acquireTimeoutMillis) {
+            this.acquireTimeoutMillis = acquireTimeoutMillis;
+        }
+
+        public int getMaxWaiters() {
+            return maxWaiters;
+        }
+
+        public void setMaxWaiters(int maxWaiters) {
+            this.maxWaiters = maxWaiters;
+        }
+    }
+
+    public static class Batch {
+
+        // 일괄 충전 작업 스레드 수 (동시에 처리되는 사용자 수의 상한)
+        private int workers = 16;
+
+        // 한 번에 요청할 수 있는 최대 항목 수
+        private int maxItems = 10000;
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public int getMaxItems() {
+            return maxItems;
+        }
+
+        public void setMaxItems(int maxItems) {
+            this.maxItems = maxItems;
+        }
+    }
+
+    public static class Lookup {
+
+        // 동시에 실행되는 잔고 조회 수의 상한
+        private int parallelism = 32;
+
+        // 전체 조회 마감 시간 (넘긴 사용자는 timedOut 으로 반환)
+        private long deadlineMillis = 1000;
+
+        // 한 번에 조회할 수 있는 최대 사용자 수
+        private int maxIds = 1000;
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+
+        public void setDeadlineMillis(long deadlineMillis) {
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        public int getMaxIds() {
+            return maxIds;
+        }
+
+        public void setMaxIds(int maxIds) {
+            this.maxIds = maxIds;
+        }
+    }
+
+    public static class Async {
+
+        // 비동기 API 의 PointService 호출을 실행하는 작업 스레드 수
+        private int workers = 200;
+
+        // 작업 스레드가 모두 사용 중일 때 기다릴 수 있는 요청 수 (넘으면 바로 503)
+        private int queueCapacity = 10000;
+
+        // 요청당 마감 시간 (넘으면 503)
+        private long timeoutMillis = 3000;
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public long getTimeoutMillis() {
+            return timeoutMillis;
+        }
+
+        public void setTimeoutMillis(long timeoutMillis) {
+            this.timeoutMillis = timeoutMillis;
+        }
+    }
+
+    public static class Idempotency {
+
+        // 보관할 최대 키 수 (넘으면 먼저 들어온 키부터 제거)
+        private int maxSize = 100000;
+
+        // 완료된 결과를 보관하는 시간 (클라이언트 재시도 기간보다 길게)
+        private long ttlMillis = 600000;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public long getTtlMillis() {
+            return ttlMillis;
+        }
+
+        public void setTtlMillis(long ttlMillis) {
+            this.ttlMillis = ttlMillis;
+        }
+    }
+
+    public static class RateLimit {
+
+        // 켜면 /point/{id}/... 요청마다 사용자별 토큰을 하나씩 사용하고, 없으면 429 로 거절
+        private boolean enabled = false;
+
+        // 사용자별 최대 토큰 수 (순간적으로 몰려도 받아들이는 요청 수)
+        private int capacity = 20;
+
+        // 사용자별 초당 채워지는 토큰 수 (지속적으로 받아들이는 초당 요청 수)
+        private double refillPerSecond = 10;
+
+        // 버킷을 보관할 최대 사용자 수
+        private int maxUsers = 100000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        public int getMaxUsers() {
+            return maxUsers;
+        }
+
+        public void setMaxUsers(int maxUsers) {
+            this.maxUsers = maxUsers;
+        }
+    }
+
+    public static class HotUsers {
+
+        // 켜면 요청 수 상위 사용자와 그 사용자들의 대기 요청 수, 락 대기 시간을 추적
+        private boolean enabled = false;
+
+        // 추적할 최대 사용자 수
+        private int capacity = 100;
+
+        // 요청 수를 절반으로 줄이는 주기 (0 이면 줄이지 않음)
+        private long decayIntervalMillis = 60000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public long getDecayIntervalMillis() {
+            return decayIntervalMillis;
+        }
+
+        public void setDecayIntervalMillis(long decayIntervalMillis) {
+            this.decayIntervalMillis = decayIntervalMillis;
+        }
+    }
+
+    public static class History {
+
+        // 잔고 저장과 동시에 내역을 기록하는 작업 스레드 수
+        private int writers = 16;
+
+        private final WriteBehind writeBehind = new WriteBehind();
+
+        private final Log log = new Log();
+
+        public int getWriters() {
+            return writers;
+        }
+
+        public void setWriters(int writers) {
+            this.writers = writers;
+        }
+
+        public WriteBehind getWriteBehind() {
+            return writeBehind;
+        }
+
+        public Log getLog() {
+            return log;
+        }
+    }
+
+    public static class Log {
+
+        // 내역을 메모리 매핑 파일에도 기록하고 시작 시 재생할지 여부
+        private boolean enabled = false;
+
+        // 세그먼트 파일을 보관할 디렉터리
+        private String directory = "data/point-history";
+
+        // 세그먼트 하나에 담을 레코드 수 (레코드당 40바이트)
+        private int segmentRecords = 1 << 20;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getSegmentRecords() {
+            return segmentRecords;
+        }
+
+        public void setSegmentRecords(int segmentRecords) {
+            this.segmentRecords = segmentRecords;
+        }
+    }
+
+    public static class WriteBehind {
+
+        // 요청 스레드 대신 백그라운드에서 내역을 기록할지 여부
+        private boolean enabled = false;
+
+        // 대기열 최대 크기 (작업 스레드 수만큼 나누어 사용)
+        private int capacity = 10000;
+
+        // 작업 스레드 수 (같은 사용자의 내역은 항상 같은 스레드가 기록)
+        private int workers = 4;
+
+        // 대기열이 가득 찼을 때 기다리는 최대 시간
+        private long offerTimeoutMillis = 1000;
+
+        // 내역 조회 시 아직 기록되지 않은 내역도 포함할지 여부
+        private boolean readYourWrites = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public long getOfferTimeoutMillis() {
+            return offerTimeoutMillis;
+        }
+
+        public void setOfferTimeoutMillis(long offerTimeoutMillis) {
+            this.offerTimeoutMillis = offerTimeoutMillis;
+        }
+
+        public boolean isReadYourWrites() {
+            return readYourWrites;
+        }
+
+        public void setReadYourWrites(boolean readYourWrites) {
+            this.readYourWrites = readYourWrites;
+        }
+    }
+}
@@ -1,89 +1,676 @@
 package io.hhplus.tdd.point;
 
+import io.hhplus.tdd.database.DurableUserPointStore;
+import io.hhplus.tdd.database.PointHistoryJournal;
+import io.hhplus.tdd.database.PointHistoryLog;
+import io.hhplus.tdd.database.PointHistoryRepository;
 import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.PrimitiveUserPointStore;
+import io.hhplus.tdd.database.UserPointCache;
+import io.hhplus.tdd.database.UserPointRepository;
 import io.hhplus.tdd.database.UserPointTable;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service("pointService")
 public class PointService {
 
-    // 사용자 포인트 정보를 저장하는 테이블
-    private final UserPointTable userPointTable;
+    private static final Logger log = LoggerFactory.getLogger(PointService.class);
 
-    // 포인트 내역 정보를 저장하는 테이블
-    private final PointHistoryTable pointHistoryTable;
+    // 최대 잔고
+    private static final long MAX_BALANCE = 10000;
+
+    // 존재하지 않는 사용자의 잔고 조회 결과 (잔고로 쓰이지 않는 값)
+    private static final long UNKNOWN_BALANCE = Long.MIN_VALUE;
+
+    // 사용자 포인트 정보를 저장하는 테이블 (앞단의 잔고 캐시를 거쳐 접근)
+    private final UserPointCache userPointCache;
+
+    // 잔고 영속화 계층 (비활성화 시 null)
+    private final DurableUserPointStore durableUserPointStore;
+
+    // 포인트 내역 정보를 저장하는 테이블 (사용자별 인덱스를 거쳐 접근)
+    private final PointHistoryRepository pointHistoryRepository;
+
+    // 포인트 내역 메모리 매핑 로그 (비활성화 시 null)
+    private final PointHistoryLog pointHistoryLog;
+
+    // 포인트 내역 write-behind 저널 (비활성화 시 null)
+    private final PointHistoryJournal pointHistoryJournal;
+
+    // 원자적 잔고 엔진 (point.engine.type=atomic 일 때만 사용, 그 외에는 null)
+    private final AtomicBalanceEngine atomicBalanceEngine;
+
+    // 샤드별 단일 스레드 잔고 엔진 (point.engine.type=sharded 일 때만 사용, 그 외에는 null)
+    private final ShardedBalanceEngine shardedBalanceEngine;
+
+    // 요청이 몰리는 사용자 추적기 (꺼져 있으면 null)
+    private final HotUserTracker hotUserTracker;
+
+    // 잔고 저장과 동시에 포인트 내역을 기록하는 작업 스레드 풀
+    private final ExecutorService historyWriter;
+
+    // 포인트 서비스 동작 설정
+    private final PointProperties properties;
+
+    // 락 대기/보유 시간, 거절 사유, 처리 중인 요청 수 지표
+    private final PointMetrics metrics;
 
     // 생성자: 의존성 주입을 통해 UserPointTable과 PointHistoryTable을 초기화
+    // 지표는 이 인스턴스 전용 레지스트리에 기록 (전역 레지스트리에 등록하면 같은 이름의 게이지가 먼저 만든 인스턴스를 가리키고 붙잡아 둠)
     public PointService(UserPointTable userPointTable, PointHistoryTable pointHistoryTable) {
-        this.userPointTable = userPointTable;
-        this.pointHistoryTable = pointHistoryTable;
+        this(userPointTable, pointHistoryTable, new PointProperties(), new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public PointService(UserPointTable userPointTable, PointHistoryTable pointHistoryTable, PointProperties properties, MeterRegistry meterRegistry) {
+        PointProperties.Persistence persistence = properties.getPersistence();
+        this.durableUserPointStore = persistence.isEnabled()
+                ? DurableUserPointStore.open(userPointTable, Path.of(persistence.getDirectory()), persistence.getFsync(),
+                        persistence.getFsyncIntervalMillis(), persistence.getSnapshotIntervalMillis())
+                : null;
+        UserPointRepository userPointRepository;
+        if (durableUserPointStore != null) {
+            userPointRepository = durableUserPointStore;
+        } else if (properties.getStore().getType() == PointProperties.Store.Type.PRIMITIVE) {
+            userPointRepository = new PrimitiveUserPointStore(userPointTable, properties.getStore().getExpectedUsers());
+        } else {
+            userPointRepository = UserPointRepository.of(userPointTable);
+        }
+        // 박싱 없는 저장소는 이미 모든 잔고를 보관하므로 박싱하는 캐시를 앞에 두지 않음
+        int cacheSize = userPointRepository instanceof PrimitiveUserPointStore ? 0 : properties.getCache().getMaxSize();
+        this.userPointCache = new UserPointCache(userPointRepository, cacheSize, meterRegistry);
+        this.userLocks = new StripedLock<>(properties.getLock().getStripes(), properties.getLock().isFair(), HashMap::new);
+        this.acquireTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(properties.getLock().getAcquireTimeoutMillis());
+        this.maxWaiters = properties.getLock().getMaxWaiters();
+        PointProperties.Log historyLog = properties.getHistory().getLog();
+        this.pointHistoryLog = historyLog.isEnabled() ? PointHistoryLog.open(Path.of(historyLog.getDirectory()), historyLog.getSegmentRecords()) : null;
+        this.pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, meterRegistry, pointHistoryLog);
+        this.metrics = new PointMetrics(meterRegistry);
+        this.atomicBalanceEngine = properties.getEngine().getType() == PointProperties.Engine.Type.ATOMIC
+                ? new AtomicBalanceEngine(userPointCache, metrics, MAX_BALANCE, properties.getEngine().getFlushWorkers(), properties.getEngine().getMaxUsers())
+                : null;
+        this.shardedBalanceEngine = properties.getEngine().getType() == PointProperties.Engine.Type.SHARDED
+                ? new ShardedBalanceEngine(userPointCache, metrics, MAX_BALANCE, properties.getEngine().getShards(),
+                properties.getEngine().getMaxUsers(), meterRegistry)
+                : null;
+        PointProperties.WriteBehind writeBehind = properties.getHistory().getWriteBehind();
+        this.pointHistoryJournal = writeBehind.isEnabled()
+                ? new PointHistoryJournal(pointHistoryRepository, writeBehind.getCapacity(), writeBehind.getWorkers(), writeBehind.getOfferTimeoutMillis())
+                : null;
+        PointProperties.HotUsers hotUsers = properties.getHotUsers();
+        this.hotUserTracker = hotUsers.isEnabled() ? new HotUserTracker(hotUsers.getCapacity(), hotUsers.getDecayIntervalMillis()) : null;
+        this.historyWriter = Executors.newFixedThreadPool(properties.getHistory().getWriters(), PointExecutorConfig.daemonThreads("point-history-writer-"));
+        this.properties = properties;
     }
 
     // 특정 사용자의 포인트 정보를 조회
     public UserPoint getUserPoint(long id) {
-        return userPointTable.selectById(id);
+        if (hotUserTracker != null) {
+            hotUserTracker.record(id);
+        }
+        if (atomicBalanceEngine != null) {
+            return atomicBalanceEngine.get(id);
+        }
+        if (shardedBalanceEngine != null) {
+            return await(shardedBalanceEngine.get(id));
+        }
+        return userPointCache.selectById(id);
     }
 
     // 특정 사용자의 포인트를 충전
     public UserPoint charge(long userId, long amount) {
         // 충전 금액이 0보다 작으면 예외 발생
         if (amount < 0) {
-            throw new IllegalArgumentException("충전 금액은 0보다 커야 합니다.");
+            throw metrics.reject(PointMetrics.RejectionReason.INVALID_AMOUNT, "충전 금액은 0보다 커야 합니다.");
         }
 
-        // 사용자별로 동기화 처리하여 충돌 방지
-        synchronized (getLock(userId)) {
-            // 사용자 포인트 정보 조회
-            UserPoint up = userPointTable.selectById(userId);
-            if (up == null) {
-                throw new IllegalArgumentException("존재하지 않는 사용자입니다.");
+        metrics.requestStarted();
+        enterHotUser(userId);
+        try {
+            if (atomicBalanceEngine != null) {
+                return atomicBalanceEngine.charge(userId, amount);
             }
-
-            // 새로운 포인트 계산
-            long newPoint = up.point() + amount;
-            // 최대 잔고 제한 초과 시 예외 발생
-            if (newPoint > 10000) {
-                throw new IllegalArgumentException("최대 잔고는 10,000원을 초과할 수 없습니다.");
+            if (shardedBalanceEngine != null) {
+                return await(shardedBalanceEngine.charge(userId, amount));
             }
 
-            // 포인트 정보를 업데이트
-            return userPointTable.insertOrUpdate(userId, newPoint);
+            // 사용자별 대기열에서 차례대로 처리하여 충돌 방지
+            return submit(new PendingOperation(userId, TransactionType.CHARGE, amount, false));
+        } finally {
+            exitHotUser(userId);
+            metrics.requestFinished();
         }
     }
 
     // 특정 사용자의 포인트를 사용
     public void use(long userId, long amount) {
-        // 사용자별로 동기화 처리하여 충돌 방지
-        synchronized (getLock(userId)) {
-            // 사용자 포인트 정보 조회
-            UserPoint up = userPointTable.selectById(userId);
-            // 잔고가 부족하면 예외 발생
-            if (up.point() < amount) throw new IllegalArgumentException("잔고가 부족합니다.");
-            // 포인트 정보를 업데이트
-            userPointTable.insertOrUpdate(userId, up.point() - amount);
+        metrics.requestStarted();
+        enterHotUser(userId);
+        try {
+            if (atomicBalanceEngine != null) {
+                atomicBalanceEngine.use(userId, amount);
+                return;
+            }
+            if (shardedBalanceEngine != null) {
+                await(shardedBalanceEngine.use(userId, amount));
+                return;
+            }
+
+            // 사용자별 대기열에서 차례대로 처리하여 충돌 방지
+            submit(new PendingOperation(userId, TransactionType.USE, amount, false));
+        } finally {
+            exitHotUser(userId);
+            metrics.requestFinished();
+        }
+    }
+
+    // 포인트를 충전하고 내역을 기록한 뒤, 저장된 포인트 정보를 반환
+    public UserPoint chargeAndRecord(long userId, long amount) {
+        if (amount < 0) {
+            throw metrics.reject(PointMetrics.RejectionReason.INVALID_AMOUNT, "충전 금액은 0보다 커야 합니다.");
+        }
+        return applyAndRecord(userId, amount, TransactionType.CHARGE);
+    }
+
+    // 포인트를 사용하고 내역을 기록한 뒤, 저장된 포인트 정보를 반환
+    public UserPoint useAndRecord(long userId, long amount) {
+        if (amount < 0) {
+            throw metrics.reject(PointMetrics.RejectionReason.INVALID_AMOUNT, "사용 금액은 0보다 커야 합니다.");
+        }
+        return applyAndRecord(userId, amount, TransactionType.USE);
+    }
+
+    // 검증을 통과한 뒤에만 내역 기록을 시작하고, 잔고 저장과 동시에 진행해 두 번의 테이블 호출 시간이 겹치도록 함
+    // 내역 기록이 실패하면 잔고를 이전 값으로 되돌리고 예외 전달
+    // 결합 모드에서는 처리하는 스레드가 한 번의 조회/저장으로 잔고를 반영하고 요청마다 내역을 기록
+    private UserPoint applyAndRecord(long userId, long amount, TransactionType type) {
+        metrics.requestStarted();
+        enterHotUser(userId);
+        try {
+            if (atomicBalanceEngine != null) {
+                return applyAndRecordAtomically(userId, amount, type);
+            }
+            if (shardedBalanceEngine != null) {
+                return applyAndRecordSharded(userId, amount, type);
+            }
+            // 충전/사용과 같은 사용자별 대기열을 사용하므로 다른 충전/사용과 섞이지 않음
+            return submit(new PendingOperation(userId, type, amount, true));
+        } finally {
+            exitHotUser(userId);
+            metrics.requestFinished();
+        }
+    }
+
+    // 원자적 잔고 엔진은 테이블 저장이 비동기이므로 내역 기록만 기다리고, 실패 시 같은 금액을 반대로 반영
+    private UserPoint applyAndRecordAtomically(long userId, long amount, TransactionType type) {
+        UserPoint written = type == TransactionType.CHARGE
+                ? atomicBalanceEngine.charge(userId, amount)
+                : atomicBalanceEngine.use(userId, amount);
+        try {
+            updateHistory(userId, amount, type);
+        } catch (RuntimeException e) {
+            revert(userId, amount, type, e, () -> atomicBalanceEngine.revert(userId, type, amount));
+            throw e;
+        }
+        return written;
+    }
+
+    // 샤드 엔진도 잔고 반영이 끝난 뒤 내역을 기록하고, 실패 시 되돌리는 요청을 같은 샤드 대기열에 넣음
+    private UserPoint applyAndRecordSharded(long userId, long amount, TransactionType type) {
+        UserPoint written = await(type == TransactionType.CHARGE
+                ? shardedBalanceEngine.charge(userId, amount)
+                : shardedBalanceEngine.use(userId, amount));
+        try {
+            updateHistory(userId, amount, type);
+        } catch (RuntimeException e) {
+            revert(userId, amount, type, e, () -> await(shardedBalanceEngine.revert(userId, type, amount)));
+            throw e;
+        }
+        return written;
+    }
+
+    // 그 사이 다른 요청이 잔고를 바꿔 되돌릴 수 없으면, 내역 없이 남은 잔고 변경을 로그와 지표로 남기고 원래 예외에 덧붙임
+    private void revert(long userId, long amount, TransactionType type, RuntimeException cause, Runnable revert) {
+        try {
+            revert.run();
+            metrics.compensated(type);
+        } catch (IllegalStateException e) {
+            metrics.compensationFailed(type);
+            log.error("보상 처리 실패로 내역 없이 남은 잔고 변경: userId={}, type={}, amount={}", userId, type, amount, e);
+            cause.addSuppressed(e);
+        }
+    }
+
+    private static UserPoint await(CompletableFuture<UserPoint> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(CompletionException e) {
+        return e.getCause() instanceof RuntimeException cause ? cause : e;
+    }
+
+    // 충전 후 잔고를 계산 (검증 실패 시 예외 발생)
+    private long applyCharge(long balance, long amount) {
+        // 새로운 포인트 계산
+        long newPoint = balance + amount;
+        // 최대 잔고 제한 초과 시 예외 발생
+        if (newPoint > MAX_BALANCE) {
+            throw metrics.reject(PointMetrics.RejectionReason.MAX_BALANCE, "최대 잔고는 10,000원을 초과할 수 없습니다.");
+        }
+        return newPoint;
+    }
+
+    // 사용 후 잔고를 계산 (잔고가 부족하면 예외 발생)
+    private long applyUse(long balance, long amount) {
+        if (balance < amount) throw metrics.reject(PointMetrics.RejectionReason.INSUFFICIENT_BALANCE, "잔고가 부족합니다.");
+        return balance - amount;
+    }
+
+    // 요청을 사용자별 대기열에 넣고, 처리 중인 스레드가 없으면 직접 처리하고 있으면 차례나 결과를 기다림
+    // 스트라이프 락은 대기열을 바꾸는 동안에만 잡고 테이블 호출 중에는 놓으므로, 같은 스트라이프의 다른 사용자는 기다리지 않음
+    // 대기 요청 수와 대기 시간 제한도 사용자별로 적용
+    private UserPoint submit(PendingOperation operation) {
+        StripedLock.Stripe<Map<Long, Lane>> stripe = getLock(operation.userId);
+        Lane lane;
+        boolean owner;
+        stripe.lock();
+        try {
+            lane = stripe.state().computeIfAbsent(operation.userId, id -> new Lane());
+            if (lane.busy && maxWaiters > 0 && lane.pending.size() >= maxWaiters) {
+                throw metrics.overloaded(new PointOverloadedException(PointOverloadedException.Reason.LOCK_QUEUE_FULL,
+                        "같은 사용자의 요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요.", retryAfterSeconds()));
+            }
+            lane.pending.add(operation);
+            owner = !lane.busy;
+            lane.busy = true;
+        } finally {
+            stripe.unlock();
+        }
+        if (owner || awaitTurn(stripe, lane, operation)) {
+            process(stripe, lane, operation.userId);
+        }
+        return operation.result();
+    }
+
+    // 처리 차례가 오면 true, 다른 스레드가 이 요청까지 처리했으면 false
+    // 제한 시간 안에 끝나지 않으면 아직 꺼내지지 않은 요청만 대기열에서 빼고 거절 (이미 꺼내진 요청은 끝까지 기다림)
+    private boolean awaitTurn(StripedLock.Stripe<Map<Long, Lane>> stripe, Lane lane, PendingOperation operation) {
+        if (acquireTimeoutNanos > 0 && !operation.await(acquireTimeoutNanos)) {
+            stripe.lock();
+            try {
+                if (!operation.promoted && lane.pending.remove(operation)) {
+                    throw metrics.overloaded(new PointOverloadedException(PointOverloadedException.Reason.LOCK_TIMEOUT,
+                            "같은 사용자의 요청이 처리 중이라 시간 안에 처리하지 못했습니다. 잠시 후 다시 시도해주세요.", retryAfterSeconds()));
+                }
+            } finally {
+                stripe.unlock();
+            }
+        }
+        operation.await();
+        return operation.promoted;
+    }
+
+    // 대기열에 쌓인 요청을 꺼내 도착 순서대로 처리하고 (결합 모드가 아니면 맨 앞 한 건만), 남은 요청이 있으면 맨 앞 요청의 스레드에 차례를 넘김
+    // 처리하는 스레드의 요청은 항상 대기열 맨 앞에 있으므로 자신의 요청은 이번 처리에 포함됨
+    private void process(StripedLock.Stripe<Map<Long, Lane>> stripe, Lane lane, long userId) {
+        List<PendingOperation> batch = new ArrayList<>();
+        stripe.lock();
+        try {
+            if (properties.getCombining().isEnabled()) {
+                batch.addAll(lane.pending);
+                lane.pending.clear();
+            } else {
+                batch.add(lane.pending.poll());
+            }
+        } finally {
+            stripe.unlock();
+        }
+        long startedAt = System.nanoTime();
+        try {
+            for (PendingOperation operation : batch) {
+                recordLockWait(userId, operation.type, startedAt - operation.enqueuedAt);
+            }
+            apply(userId, batch);
+        } finally {
+            metrics.recordLockHold(batch.get(0).type, System.nanoTime() - startedAt);
+            for (PendingOperation operation : batch) {
+                if (!operation.isDone()) {
+                    operation.reject(new IllegalStateException("요청 처리 중 오류가 발생했습니다."));
+                }
+            }
+            handOff(stripe, lane, userId);
+        }
+    }
+
+    // 남은 요청이 없으면 대기열을 맵에서 제거하고, 있으면 맨 앞 요청의 스레드가 이어서 처리
+    private void handOff(StripedLock.Stripe<Map<Long, Lane>> stripe, Lane lane, long userId) {
+        stripe.lock();
+        try {
+            PendingOperation next = lane.pending.peek();
+            if (next == null) {
+                lane.busy = false;
+                stripe.state().remove(userId);
+            } else {
+                next.promote();
+            }
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    // 대기 시간 제한으로 거절할 때 다시 시도하라고 안내할 시간
+    private long retryAfterSeconds() {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(acquireTimeoutNanos));
+    }
+
+    // 한 사용자의 요청들을 한 번의 조회 결과에 순서대로 적용하고, 한 번만 저장
+    // 내역 기록이 필요한 요청은 잔고 저장과 동시에 한 건씩 내역을 기록하고, 실패한 요청만 빼고 다시 저장
+    private void apply(long userId, List<PendingOperation> batch) {
+        try {
+            // 잔고만 읽으므로 박싱 없는 저장소에서는 UserPoint 객체를 만들지 않음
+            long read = userPointCache.selectPointById(userId, UNKNOWN_BALANCE);
+            if (read == UNKNOWN_BALANCE) {
+                throw metrics.reject(PointMetrics.RejectionReason.UNKNOWN_USER, "존재하지 않는 사용자입니다.");
+            }
+
+            long balance = read;
+            List<PendingOperation> accepted = new ArrayList<>();
+            for (PendingOperation operation : batch) {
+                try {
+                    balance = operation.type == TransactionType.CHARGE
+                            ? applyCharge(balance, operation.amount)
+                            : applyUse(balance, operation.amount);
+                    operation.balance = balance;
+                    accepted.add(operation);
+                } catch (IllegalArgumentException e) {
+                    // 거절된 요청은 잔고에 반영하지 않고 해당 호출자에게만 예외 전달
+                    operation.reject(e);
+                }
+            }
+            if (accepted.isEmpty()) {
+                return;
+            }
+
+            Map<PendingOperation, CompletableFuture<PointHistory>> histories = new LinkedHashMap<>();
+            for (PendingOperation operation : accepted) {
+                if (operation.record) {
+                    histories.put(operation, CompletableFuture.supplyAsync(
+                            () -> updateHistory(userId, operation.amount, operation.type), historyWriter));
+                }
+            }
+            UserPoint written;
+            try {
+                written = userPointCache.insertOrUpdate(userId, balance);
+            } catch (RuntimeException e) {
+                // 내역 테이블에는 삭제 API 가 없으므로 잔고 변경 없이 남은 내역을 로그로 남김
+                histories.values().forEach(history -> history.thenAccept(recorded -> log.error("잔고 저장 실패로 잔고 변경 없이 기록된 내역: {}", recorded)));
+                throw e;
+            }
+            boolean unrecorded = false;
+            for (Map.Entry<PendingOperation, CompletableFuture<PointHistory>> entry : histories.entrySet()) {
+                try {
+                    entry.getValue().join();
+                } catch (CompletionException e) {
+                    entry.getKey().reject(unwrap(e));
+                    metrics.compensated(entry.getKey().type);
+                    unrecorded = true;
+                }
+            }
+            if (unrecorded) {
+                written = compensate(userId, read, accepted, histories);
+            }
+            for (PendingOperation operation : accepted) {
+                if (!operation.isDone()) {
+                    operation.complete(operation.balance == written.point()
+                            ? written
+                            : new UserPoint(userId, operation.balance, written.updateMillis()));
+                }
+            }
+        } catch (RuntimeException e) {
+            // 조회/저장 자체가 실패하면 아직 끝나지 않은 요청 모두 실패 처리
+            for (PendingOperation operation : batch) {
+                if (!operation.isDone()) {
+                    operation.reject(e);
+                }
+            }
+        }
+    }
+
+    // 내역 기록에 실패한 요청을 빼고 조회한 잔고부터 다시 적용해 저장
+    // 빼고 나면 잔고 한도를 벗어나는 요청(예: 실패한 충전 금액으로 사용한 요청)도 같은 검증으로 실패 처리하고, 이미 기록된 내역은 로그로 남김
+    private UserPoint compensate(long userId, long balance, List<PendingOperation> accepted,
+                                 Map<PendingOperation, CompletableFuture<PointHistory>> histories) {
+        for (PendingOperation operation : accepted) {
+            if (operation.isDone()) {
+                continue;
+            }
+            long next = operation.type == TransactionType.CHARGE ? balance + operation.amount : balance - operation.amount;
+            if (next < 0 || next > MAX_BALANCE) {
+                operation.reject(new IllegalStateException("함께 처리된 요청의 내역 기록이 실패해 반영하지 못했습니다."));
+                CompletableFuture<PointHistory> history = histories.get(operation);
+                if (history != null) {
+                    metrics.compensationFailed(operation.type);
+                    log.error("보상 처리로 잔고 변경 없이 기록된 내역: {}", history.join());
+                }
+                continue;
+            }
+            balance = next;
+            operation.balance = balance;
         }
+        return userPointCache.insertOrUpdate(userId, balance);
+    }
+
+    private void enterHotUser(long userId) {
+        if (hotUserTracker != null) {
+            hotUserTracker.enter(userId);
+        }
+    }
+
+    private void exitHotUser(long userId) {
+        if (hotUserTracker != null) {
+            hotUserTracker.exit(userId);
+        }
+    }
+
+    private void recordLockWait(long userId, TransactionType type, long waitNanos) {
+        metrics.recordLockWait(type, waitNanos);
+        if (hotUserTracker != null) {
+            hotUserTracker.lockWaited(userId, waitNanos);
+        }
+    }
+
+    // 사용자 ID 를 해시해 고정된 수의 락 중 하나를 사용 (락마다 그 스트라이프에서 처리 중인 사용자별 대기열을 함께 보관)
+    private final StripedLock<Map<Long, Lane>> userLocks;
+
+    // 사용자별 대기열에서 차례를 기다리는 최대 시간(ns)과 최대 요청 수 (0 이면 제한 없음)
+    private final long acquireTimeoutNanos;
+    private final int maxWaiters;
+
+    // 특정 사용자에 대한 락을 반환
+    private StripedLock.Stripe<Map<Long, Lane>> getLock(long userId) {
+        return userLocks.stripeOf(userId);
+    }
+
+    // 스트라이프 락 대기 통계 (사용자별 대기열을 바꾸는 짧은 구간만 포함, 차례를 기다린 시간은 point.lock.wait 지표)
+    public StripedLock.Stats getLockStats() {
+        return userLocks.stats();
+    }
+
+    // 원자적 잔고 엔진 통계 (locking 엔진이면 null)
+    public AtomicBalanceEngine.Stats getEngineStats() {
+        return atomicBalanceEngine == null ? null : atomicBalanceEngine.stats();
+    }
+
+    // 샤드 엔진 통계 (sharded 엔진이 아니면 null)
+    public ShardedBalanceEngine.Stats getShardStats() {
+        return shardedBalanceEngine == null ? null : shardedBalanceEngine.stats();
     }
 
-    // 사용자별 동기화를 위한 락 객체를 저장하는 맵
-    private final ConcurrentHashMap<Long, Object> userLocks = new ConcurrentHashMap<>();
+    // 요청 수 상위 사용자 (추적이 꺼져 있으면 빈 목록)
+    public List<HotUserTracker.HotUser> getHotUsers(int limit) {
+        return hotUserTracker == null ? List.of() : hotUserTracker.top(limit);
+    }
 
-    // 특정 사용자에 대한 락 객체를 반환 (없으면 새로 생성)
-    private Object getLock(long userId) {
-        return userLocks.computeIfAbsent(userId, id -> new Object());
+    // 잔고 캐시의 적중/실패/제거 통계
+    public UserPointCache.Stats getCacheStats() {
+        return userPointCache.stats();
     }
 
     // 포인트 내역을 업데이트
     public PointHistory updateHistory(long userId, long amount, TransactionType type) {
+        // write-behind 모드에서는 대기열에만 넣고 반환 (반환된 내역의 id 는 아직 0)
+        if (pointHistoryJournal != null) {
+            return pointHistoryJournal.append(userId, amount, type, System.currentTimeMillis());
+        }
         // 포인트 내역을 테이블에 삽입
-        return pointHistoryTable.insert(userId, amount, type, System.currentTimeMillis());
+        return pointHistoryRepository.insert(userId, amount, type, System.currentTimeMillis());
     }
 
     // 특정 사용자의 포인트 내역을 조회
     public List<PointHistory> getPointHistory(long userId) {
-        // 포인트 내역을 테이블에서 조회
-        return pointHistoryTable.selectAllByUserId(userId);
+        // 아직 기록되지 않은 내역도 포함하도록 설정된 경우 대기 중인 내역을 뒤에 붙여 반환
+        if (pointHistoryJournal != null && properties.getHistory().getWriteBehind().isReadYourWrites()) {
+            return pointHistoryJournal.withPending(userId, pointHistoryRepository::selectAllByUserId);
+        }
+        // 포인트 내역을 사용자별 인덱스에서 조회
+        return pointHistoryRepository.selectAllByUserId(userId);
+    }
+
+    // 특정 사용자의 포인트 내역을 커서(afterId) 이후부터 limit 건 조회
+    public List<PointHistory> getPointHistory(long userId, long afterId, int limit) {
+        return pointHistoryRepository.selectByUserId(userId, afterId, limit);
+    }
+
+    // 특정 사용자의 포인트 내역 중 수정 시각이 [fromMillis, toMillis) 인 내역을 시각 순서로 limit 건 조회 (descending 이면 최근 내역부터)
+    public List<PointHistory> getPointHistory(long userId, long fromMillis, long toMillis, boolean descending, int limit) {
+        return pointHistoryRepository.selectByUserIdBetween(userId, fromMillis, toMillis, descending, limit);
+    }
+
+    // 특정 사용자의 트랜잭션 종류별 건수와 금액 합계 (write-behind 모드에서 대기 중인 내역은 기록된 뒤에 반영)
+    public PointSummary getPointSummary(long userId) {
+        return pointHistoryRepository.summaryOf(userId);
+    }
+
+    // 종료 시 아직 저장되지 않은 잔고와 대기 중인 포인트 내역을 모두 기록하고 내역 로그와 잔고 스냅샷을 남김
+    @PreDestroy
+    public void close() {
+        historyWriter.shutdown();
+        if (atomicBalanceEngine != null) {
+            atomicBalanceEngine.close();
+        }
+        if (shardedBalanceEngine != null) {
+            shardedBalanceEngine.close();
+        }
+        if (pointHistoryJournal != null) {
+            pointHistoryJournal.close();
+        }
+        // 저널이 남은 내역을 모두 기록한 뒤 로그를 닫음
+        if (pointHistoryLog != null) {
+            pointHistoryLog.close();
+        }
+        // 잔고 엔진이 남은 잔고를 모두 저장한 뒤 마지막 스냅샷을 남김
+        if (durableUserPointStore != null) {
+            durableUserPointStore.close();
+        }
+    }
+
+    // 한 사용자의 대기열 (스트라이프 락을 잡은 상태에서만 접근하며, 대기 중이거나 처리 중인 요청이 없으면 맵에서 제거)
+    private static class Lane {
+        private final ArrayDeque<PendingOperation> pending = new ArrayDeque<>();
+        // 이 사용자의 요청을 처리 중인 스레드가 있는지 여부
+        private boolean busy;
+    }
+
+    // 처리를 기다리는 충전/사용 요청 한 건
+    private static class PendingOperation {
+        private final long userId;
+        private final TransactionType type;
+        private final long amount;
+        // 잔고 반영과 함께 내역을 기록할지 여부
+        private final boolean record;
+        private final long enqueuedAt = System.nanoTime();
+        private long balance;
+        private volatile UserPoint result;
+        private volatile RuntimeException failure;
+        // 처리할 차례가 되었는지 여부
+        private volatile boolean promoted;
+        // 처리가 끝나거나 처리할 차례가 되면 완료되어, 기다리는 스레드를 깨움
+        private final CompletableFuture<Void> signal = new CompletableFuture<>();
+
+        private PendingOperation(long userId, TransactionType type, long amount, boolean record) {
+            this.userId = userId;
+            this.type = type;
+            this.amount = amount;
+            this.record = record;
+        }
+
+        private boolean isDone() {
+            return result != null || failure != null;
+        }
+
+        // 처리가 끝나거나 처리할 차례가 될 때까지 스레드를 재우고 대기
+        private void await() {
+            signal.join();
+        }
+
+        // 제한 시간 안에 깨어나면 true (인터럽트되면 인터럽트 상태를 남기고 false)
+        private boolean await(long timeoutNanos) {
+            try {
+                signal.get(timeoutNanos, TimeUnit.NANOSECONDS);
+                return true;
+            } catch (TimeoutException | ExecutionException e) {
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private void promote() {
+            this.promoted = true;
+            signal.complete(null);
+        }
+
+        private void complete(UserPoint result) {
+            this.result = result;
+            signal.complete(null);
+        }
+
+        private void reject(RuntimeException failure) {
+            this.failure = failure;
+            signal.complete(null);
+        }
+
+        private UserPoint result() {
+            if (failure != null) {
+                throw failure;
+            }
+            return result;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package io.hhplus.tdd.point;
+
+import java.util.Map;
+
+/**
+ * 특정 사용자의 포인트 내역 요약 (트랜잭션 종류별 건수와 금액 합계)
+ */
+public record PointSummary(
+        long userId,
+        Map<TransactionType, Total> totals
+) {
+
+    /**
+     * 트랜잭션 종류 하나의 건수와 금액 합계
+     */
+    public record Total(long count, long amount) {
+    }
+}
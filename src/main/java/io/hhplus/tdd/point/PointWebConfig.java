@@ -0,0 +1,58 @@
+package io.hhplus.tdd.point;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Map;
+
+/**
+ * 포인트 API 앞단 설정
+ * - point.rate-limit.enabled 가 켜져 있으면 /point/{id}/... 요청을 컨트롤러에 넘기기 전에 사용자별 허용량을 확인합니다.
+ */
+@Configuration
+public class PointWebConfig implements WebMvcConfigurer {
+
+    private final PointProperties properties;
+    private final UserRateLimiter userRateLimiter;
+
+    public PointWebConfig(PointProperties properties, UserRateLimiter userRateLimiter) {
+        this.properties = properties;
+        this.userRateLimiter = userRateLimiter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (properties.getRateLimit().isEnabled()) {
+            registry.addInterceptor(new RateLimitInterceptor(userRateLimiter)).addPathPatterns("/point/**");
+        }
+    }
+
+    // 경로의 {id} 로 사용자를 구분 (여러 사용자를 다루는 조회/일괄 충전 API 는 제외)
+    private static final class RateLimitInterceptor implements HandlerInterceptor {
+        private final UserRateLimiter userRateLimiter;
+
+        private RateLimitInterceptor(UserRateLimiter userRateLimiter) {
+            this.userRateLimiter = userRateLimiter;
+        }
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            String id = variables == null ? null : variables.get("id");
+            if (id != null) {
+                try {
+                    userRateLimiter.acquire(Long.parseLong(id));
+                } catch (NumberFormatException ignored) {
+                    // 잘못된 ID 는 컨트롤러에서 400 으로 처리
+                }
+            }
+            return true;
+        }
+    }
+}
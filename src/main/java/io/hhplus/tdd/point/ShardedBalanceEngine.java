@@ -0,0 +1,302 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.LongBalanceMap;
+import io.hhplus.tdd.database.UserPointCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 사용자를 ID 로 나눠 샤드마다 한 스레드가 전담 처리하는 잔고 엔진
+ * - 샤드는 담당 사용자의 잔고와 요청 대기열(mailbox)을 단독으로 소유하므로 사용자 락이 필요 없습니다.
+ * - 충전/사용은 대기열에 넣는 메시지이며, 처리 결과는 CompletableFuture 로 전달합니다.
+ * - 샤드 스레드는 대기열에 쌓인 요청을 한 번에 꺼내 사용자별로 묶고, 사용자마다 한 번의 조회/저장으로 반영합니다.
+ * - 잔고는 테이블에 저장된 뒤에만 샤드의 잔고 맵에 반영되므로, 조회는 대기열을 거치지 않고 맵에서 바로 읽습니다.
+ * - 샤드의 잔고 맵이 샤드별 상한(maxUsers / 샤드 수)을 넘으면 샤드 스레드가 되도록 방금 처리한 사용자를 남기고 상한의 3/4 까지 내보냅니다.
+ *   맵의 잔고는 모두 테이블에 기록된 값이므로 내보낸 사용자는 다음 요청 때 테이블에서 다시 읽습니다.
+ * - 지표
+ *   - point.shard.queue.depth : 샤드별 대기 중인 요청 수
+ *   - point.shard.batches / point.shard.commands : 샤드별 처리 묶음 수와 요청 수 (요청 수 / 묶음 수 = 평균 묶음 크기)
+ */
+public class ShardedBalanceEngine implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedBalanceEngine.class);
+
+    // 한 번에 꺼내 처리하는 최대 요청 수
+    private static final int MAX_BATCH = 256;
+
+    private final UserPointCache userPointCache;
+    private final PointMetrics metrics;
+    private final long maxBalance;
+    private final Shard[] shards;
+    private final int maxUsersPerShard;
+    private final LongAdder evictions = new LongAdder();
+
+    private volatile boolean closed;
+
+    public ShardedBalanceEngine(UserPointCache userPointCache, PointMetrics metrics, long maxBalance, int shardCount, int maxUsers, MeterRegistry registry) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("샤드 수는 0보다 커야 합니다: " + shardCount);
+        }
+        this.userPointCache = userPointCache;
+        this.metrics = metrics;
+        this.maxBalance = maxBalance;
+        this.maxUsersPerShard = Math.max(1, (maxUsers + shardCount - 1) / shardCount);
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, registry);
+        }
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+    }
+
+    // 샤드에 이미 있는 사용자는 대기열을 거치지 않고 바로 반환
+    public CompletableFuture<UserPoint> get(long userId) {
+        UserPoint userPoint = shardOf(userId).balances.get(userId);
+        return userPoint != null ? CompletableFuture.completedFuture(userPoint) : submit(userId, null, 0, false);
+    }
+
+    public CompletableFuture<UserPoint> charge(long userId, long amount) {
+        return submit(userId, TransactionType.CHARGE, amount, false);
+    }
+
+    public CompletableFuture<UserPoint> use(long userId, long amount) {
+        return submit(userId, TransactionType.USE, amount, false);
+    }
+
+    // 이미 반영된 충전/사용을 되돌림 (보상 처리도 같은 잔고 규칙을 지키며, 그 사이 바뀐 잔고로는 되돌릴 수 없으면 IllegalStateException 으로 완료)
+    public CompletableFuture<UserPoint> revert(long userId, TransactionType type, long amount) {
+        return submit(userId, type, amount, true);
+    }
+
+    public Stats stats() {
+        int users = 0;
+        int queued = 0;
+        long batches = 0;
+        long commands = 0;
+        for (Shard shard : shards) {
+            users += shard.balances.size();
+            queued += shard.mailbox.size();
+            batches += (long) shard.batches.count();
+            commands += (long) shard.commands.count();
+        }
+        return new Stats(shards.length, users, queued, batches, commands, evictions.sum());
+    }
+
+    // 새 요청을 받지 않고, 이미 대기열에 들어온 요청은 모두 처리한 뒤 종료
+    // 샤드 스레드가 끝난 뒤에 들어왔거나 기다리는 시간 안에 처리되지 못한 요청은 실패로 완료
+    @Override
+    public void close() {
+        closed = true;
+        for (Shard shard : shards) {
+            try {
+                shard.thread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        for (Shard shard : shards) {
+            Command command;
+            while ((command = shard.mailbox.poll()) != null) {
+                command.result.completeExceptionally(closedException());
+            }
+        }
+    }
+
+    private CompletableFuture<UserPoint> submit(long userId, TransactionType type, long amount, boolean revert) {
+        Command command = new Command(userId, type, amount, revert);
+        if (closed) {
+            command.result.completeExceptionally(closedException());
+            return command.result;
+        }
+        BlockingQueue<Command> mailbox = shardOf(userId).mailbox;
+        mailbox.add(command);
+        // 확인과 추가 사이에 종료되었다면 샤드 스레드가 이미 끝났을 수 있으므로 다시 확인해 꺼냄
+        // 꺼내지 못했다면 샤드 스레드나 close() 가 가져가 완료함
+        if (closed && mailbox.remove(command)) {
+            command.result.completeExceptionally(closedException());
+        }
+        return command.result;
+    }
+
+    private static IllegalStateException closedException() {
+        return new IllegalStateException("잔고 엔진이 종료되었습니다.");
+    }
+
+    // 연속된 사용자 ID 가 같은 샤드에 몰리지 않도록 비트를 섞은 뒤 나머지 연산
+    private Shard shardOf(long userId) {
+        long h = userId * 0x9E3779B97F4A7C15L;
+        return shards[Math.floorMod((int) (h ^ (h >>> 32)), shards.length)];
+    }
+
+    // 한 사용자의 요청들을 한 번의 조회 결과에 순서대로 적용하고, 바뀐 경우에만 한 번 저장
+    private void apply(LongBalanceMap balances, long userId, List<Command> batch) {
+        try {
+            UserPoint current = balances.get(userId);
+            if (current == null) {
+                current = userPointCache.selectById(userId);
+                if (current == null) {
+                    throw metrics.reject(PointMetrics.RejectionReason.UNKNOWN_USER, "존재하지 않는 사용자입니다.");
+                }
+                balances.put(userId, current.point(), current.updateMillis());
+            }
+
+            long balance = current.point();
+            List<Command> accepted = new ArrayList<>(batch.size());
+            for (Command command : batch) {
+                if (command.type != null) {
+                    try {
+                        balance = command.apply(balance, maxBalance, metrics);
+                    } catch (IllegalArgumentException | IllegalStateException e) {
+                        // 거절된 요청은 잔고에 반영하지 않고 해당 호출자에게만 예외 전달
+                        command.result.completeExceptionally(e);
+                        continue;
+                    }
+                }
+                command.balance = balance;
+                accepted.add(command);
+            }
+
+            UserPoint written = current;
+            if (balance != current.point()) {
+                written = userPointCache.insertOrUpdate(userId, balance);
+                balances.put(userId, written.point(), written.updateMillis());
+            }
+            for (Command command : accepted) {
+                command.result.complete(command.balance == written.point()
+                        ? written
+                        : new UserPoint(userId, command.balance, written.updateMillis()));
+            }
+        } catch (RuntimeException e) {
+            // 조회/저장 자체가 실패하면 아직 끝나지 않은 요청 모두 실패 처리 (맵의 잔고는 바뀌지 않음)
+            for (Command command : batch) {
+                command.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * 샤드 수, 잔고를 보관 중인 사용자 수, 대기 중인 요청 수, 처리 묶음 수, 처리 요청 수, 상한을 넘어 내보낸 사용자 수
+     */
+    public record Stats(int shards, int users, int queued, long batches, long commands, long evictions) {
+    }
+
+    private final class Shard implements Runnable {
+        private final BlockingQueue<Command> mailbox = new LinkedBlockingQueue<>();
+        private final LongBalanceMap balances = new LongBalanceMap();
+        private final Thread thread;
+        private final Counter batches;
+        private final Counter commands;
+
+        private Shard(int index, MeterRegistry registry) {
+            String shard = String.valueOf(index);
+            this.thread = new Thread(this, "point-balance-shard-" + index);
+            thread.setDaemon(true);
+            Gauge.builder("point.shard.queue.depth", mailbox, BlockingQueue::size)
+                    .description("샤드 대기열에 쌓인 요청 수")
+                    .tag("shard", shard)
+                    .register(registry);
+            this.batches = Counter.builder("point.shard.batches")
+                    .description("샤드가 대기열에서 꺼내 처리한 묶음 수")
+                    .tag("shard", shard)
+                    .register(registry);
+            this.commands = Counter.builder("point.shard.commands")
+                    .description("샤드가 처리한 요청 수")
+                    .tag("shard", shard)
+                    .register(registry);
+        }
+
+        @Override
+        public void run() {
+            List<Command> drained = new ArrayList<>(MAX_BATCH);
+            while (!closed || !mailbox.isEmpty()) {
+                try {
+                    Command first = mailbox.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    drained.add(first);
+                    mailbox.drainTo(drained, MAX_BATCH - 1);
+                    process(drained);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    log.error("샤드 요청 처리 실패", e);
+                } finally {
+                    drained.clear();
+                }
+            }
+        }
+
+        // 꺼낸 요청을 사용자별로 묶어 도착 순서대로 처리
+        private void process(List<Command> drained) {
+            Map<Long, List<Command>> byUser = new LinkedHashMap<>();
+            for (Command command : drained) {
+                byUser.computeIfAbsent(command.userId, id -> new ArrayList<>()).add(command);
+            }
+            byUser.forEach((userId, batch) -> apply(balances, userId, batch));
+            // 샤드 스레드만 맵에 쓰므로 내보내는 도중 같은 사용자의 잔고가 바뀌지 않음
+            // 묶음의 사용자가 많아 남겨 두고는 상한을 지킬 수 없으면 그 사용자들도 내보냄
+            if (balances.size() > maxUsersPerShard) {
+                evictions.add(balances.trimTo(maxUsersPerShard - maxUsersPerShard / 4, byUser::containsKey));
+            }
+            if (balances.size() > maxUsersPerShard) {
+                evictions.add(balances.trimTo(maxUsersPerShard, id -> false));
+            }
+            batches.increment();
+            commands.increment(drained.size());
+        }
+    }
+
+    // 대기열에 들어가는 요청 (type 이 null 이면 잔고 조회)
+    private static final class Command {
+        private final long userId;
+        private final TransactionType type;
+        private final long amount;
+        private final boolean revert;
+        private final CompletableFuture<UserPoint> result = new CompletableFuture<>();
+        private long balance;
+
+        private Command(long userId, TransactionType type, long amount, boolean revert) {
+            this.userId = userId;
+            this.type = type;
+            this.amount = amount;
+            this.revert = revert;
+        }
+
+        private long apply(long balance, long maxBalance, PointMetrics metrics) {
+            if (revert) {
+                long next = type == TransactionType.CHARGE ? balance - amount : balance + amount;
+                if (next < 0 || next > maxBalance) {
+                    throw new IllegalStateException("되돌리면 잔고가 한도를 벗어나 되돌리지 못했습니다.");
+                }
+                return next;
+            }
+            if (type == TransactionType.CHARGE) {
+                if (balance + amount > maxBalance) {
+                    throw metrics.reject(PointMetrics.RejectionReason.MAX_BALANCE, "최대 잔고는 10,000원을 초과할 수 없습니다.");
+                }
+                return balance + amount;
+            }
+            if (balance < amount) {
+                throw metrics.reject(PointMetrics.RejectionReason.INSUFFICIENT_BALANCE, "잔고가 부족합니다.");
+            }
+            return balance - amount;
+        }
+    }
+}
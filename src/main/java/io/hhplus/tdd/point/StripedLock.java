@@ -0,0 +1,101 @@
+package io.hhplus.tdd.point;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 사용자 ID 를 해시해 고정된 개수의 락 중 하나에 대응시키는 락 스트라이핑
+ * - 락 메모리는 사용자 수가 아닌 스트라이프 수에 비례합니다.
+ * - 스트라이프마다 호출자가 정한 상태 객체(state)를 하나씩 함께 보관합니다.
+ * - 공정(fair) 모드에서는 먼저 기다린 스레드가 먼저 락을 얻습니다.
+ */
+public class StripedLock<T> {
+
+    private final Stripe<T>[] stripes;
+    private final int mask;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public StripedLock(int stripeCount, boolean fair, Supplier<T> stateFactory) {
+        if (stripeCount <= 0 || Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("락 스트라이프 수는 2의 거듭제곱이어야 합니다: " + stripeCount);
+        }
+        this.stripes = new Stripe[stripeCount];
+        this.mask = stripeCount - 1;
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe<>(this, new ReentrantLock(fair), stateFactory.get());
+        }
+    }
+
+    public Stripe<T> stripeOf(long userId) {
+        return stripes[index(userId)];
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    public Stats stats() {
+        return new Stats(acquisitions.sum(), contended.sum(), totalWaitNanos.sum(), maxWaitNanos.get());
+    }
+
+    // 연속된 사용자 ID 가 같은 스트라이프에 몰리지 않도록 비트를 섞은 뒤 하위 비트 사용
+    private int index(long userId) {
+        long h = userId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void recordWait(long waitNanos) {
+        acquisitions.increment();
+        if (waitNanos > 0) {
+            contended.increment();
+            totalWaitNanos.add(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        }
+    }
+
+    /**
+     * 락 획득 횟수, 대기가 발생한 횟수, 누적/최대 대기 시간(ns)
+     */
+    public record Stats(long acquisitions, long contended, long totalWaitNanos, long maxWaitNanos) {
+    }
+
+    public static class Stripe<T> {
+        private final StripedLock<T> owner;
+        private final ReentrantLock lock;
+        private final T state;
+
+        private Stripe(StripedLock<T> owner, ReentrantLock lock, T state) {
+            this.owner = owner;
+            this.lock = lock;
+            this.state = state;
+        }
+
+        // 바로 얻지 못한 경우에만 대기 시간을 측정하여 반환 (대기 중인 스레드가 있으면 새치기하지 않음)
+        public long lock() {
+            if (!lock.hasQueuedThreads() && lock.tryLock()) {
+                owner.recordWait(0);
+                return 0;
+            }
+            long start = System.nanoTime();
+            lock.lock();
+            long waitNanos = System.nanoTime() - start;
+            owner.recordWait(waitNanos);
+            return waitNanos;
+        }
+
+        public void unlock() {
+            lock.unlock();
+        }
+
+        public T state() {
+            return state;
+        }
+    }
+}
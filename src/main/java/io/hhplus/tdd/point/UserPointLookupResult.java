@@ -0,0 +1,15 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+public record UserPointLookupResult(
+        List<UserPoint> points,
+        List<Long> timedOut,
+        List<Long> failed,
+        boolean partial
+) {
+
+    public UserPointLookupResult(List<UserPoint> points, List<Long> timedOut, List<Long> failed) {
+        this(points, timedOut, failed, !timedOut.isEmpty() || !failed.isEmpty());
+    }
+}
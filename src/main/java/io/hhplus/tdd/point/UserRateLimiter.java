@@ -0,0 +1,123 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 사용자별 토큰 버킷으로 요청을 받아들일지 정하는 허용량 제한기
+ * - 사용자마다 최대 capacity 개의 토큰을 두고 초당 refillPerSecond 개씩 채우며, 요청 1건에 토큰 1개를 사용합니다.
+ * - 토큰이 없으면 사용자 락 대기열에 줄 세우지 않고 PointOverloadedException 으로 바로 거절합니다. (429)
+ * - 버킷 수가 maxUsers 를 넘으면 가득 찬(한동안 요청이 없던) 버킷을 정리하며, 그래도 자리가 없으면 새 사용자는 제한 없이 통과시킵니다.
+ */
+@Component
+public class UserRateLimiter {
+
+    // 버킷을 정리하는 최소 간격
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final int maxUsers;
+    private final LongSupplier clock;
+    private final Counter rejected;
+
+    private final ConcurrentHashMap<Long, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepNanos;
+
+    public UserRateLimiter(PointProperties properties, MeterRegistry registry) {
+        this(properties.getRateLimit().getCapacity(), properties.getRateLimit().getRefillPerSecond(),
+                properties.getRateLimit().getMaxUsers(), System::nanoTime, registry);
+    }
+
+    public UserRateLimiter(int capacity, double refillPerSecond, int maxUsers, LongSupplier clock, MeterRegistry registry) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("버킷 크기와 초당 충전량은 0보다 커야 합니다.");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.maxUsers = maxUsers;
+        this.clock = clock;
+        this.rejected = PointMetrics.overloadCounter(registry, PointOverloadedException.Reason.RATE_LIMITED);
+        this.lastSweepNanos = new AtomicLong(clock.getAsLong());
+    }
+
+    // 토큰을 하나 사용하고, 없으면 PointOverloadedException 발생
+    public void acquire(long userId) {
+        long now = clock.getAsLong();
+        Bucket bucket = bucketOf(userId, now);
+        if (bucket == null) {
+            return;
+        }
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            rejected.increment();
+            throw new PointOverloadedException(PointOverloadedException.Reason.RATE_LIMITED,
+                    "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.", Math.max(1, (long) Math.ceil(waitNanos / 1e9)));
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private Bucket bucketOf(long userId, long now) {
+        Bucket bucket = buckets.get(userId);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxUsers) {
+            sweep(now);
+            if (buckets.size() >= maxUsers) {
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(userId, id -> new Bucket(capacity, now));
+    }
+
+    // 가득 찬 버킷은 새로 만든 버킷과 같으므로 제거해도 결과가 같음 (여러 스레드가 동시에 정리하지 않도록 간격을 둠)
+    private void sweep(long now) {
+        long last = lastSweepNanos.get();
+        if (now - last < SWEEP_INTERVAL_NANOS || !lastSweepNanos.compareAndSet(last, now)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private final class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        private Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        // 토큰을 사용했으면 0, 없으면 다음 토큰이 찰 때까지의 시간(ns)
+        private synchronized long tryAcquire(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+
+        private synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            if (now > refilledAt) {
+                tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+                refilledAt = now;
+            }
+        }
+    }
+}
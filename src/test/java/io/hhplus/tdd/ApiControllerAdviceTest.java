@@ -0,0 +1,37 @@
+package io.hhplus.tdd;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 예외 종류별로 응답 상태 코드가 구분되는지 검증하는 테스트 클래스
+ */
+class ApiControllerAdviceTest {
+
+    private final ApiControllerAdvice advice = new ApiControllerAdvice();
+
+    /**
+     * 입력 검증 실패(IllegalArgumentException)는 500 이 아닌 400 과 검증 메시지로 응답하는지 테스트
+     */
+    @Test
+    void illegalArgumentShouldBeBadRequest() {
+        ResponseEntity<ErrorResponse> response = advice.handleBadRequest(new IllegalArgumentException("유저 ID 목록에 빈 값이 있습니다."));
+        System.out.println("[검증] 응답: " + response.getStatusCode().value() + " " + response.getBody());
+
+        assertEquals(400, response.getStatusCode().value());
+        assertEquals(new ErrorResponse("400", "유저 ID 목록에 빈 값이 있습니다."), response.getBody());
+    }
+
+    /**
+     * 그 밖의 예외는 내부 메시지를 노출하지 않고 500 으로 응답하는지 테스트
+     */
+    @Test
+    void unexpectedExceptionShouldStayInternalServerError() {
+        ResponseEntity<ErrorResponse> response = advice.handleException(new IllegalStateException("내부 상태"));
+
+        assertEquals(500, response.getStatusCode().value());
+        assertEquals("에러가 발생했습니다.", response.getBody().message());
+    }
+}
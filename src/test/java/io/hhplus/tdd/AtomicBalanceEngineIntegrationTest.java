@@ -0,0 +1,190 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointCache;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.AtomicBalanceEngine;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.PointProperties;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * atomic 잔고 엔진으로 PointServiceIntegrationTest 의 모든 테스트를 다시 실행하고,
+ * 비동기로 저장된 잔고가 테이블에 최종 값으로 남는지 검증하는 테스트 클래스
+ */
+class AtomicBalanceEngineIntegrationTest extends PointServiceIntegrationTest {
+
+    private UserPointTable userPointTable;
+
+    @Override
+    protected PointService createPointService(UserPointTable userPointTable, PointHistoryTable pointHistoryTable) {
+        this.userPointTable = userPointTable;
+        PointProperties properties = new PointProperties();
+        properties.getEngine().setType(PointProperties.Engine.Type.ATOMIC);
+        return new PointService(userPointTable, pointHistoryTable, properties, new SimpleMeterRegistry());
+    }
+
+    /**
+     * 동시에 충전/사용한 뒤 종료하면 테이블에 마지막 잔고가 기록되고, 저장 횟수는 변경 횟수보다 적은지 테스트
+     */
+    @Test
+    void testFinalBalanceIsFlushedToTable() throws InterruptedException {
+        long userId = 1L;
+        pointService.charge(userId, 5000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        for (int i = 0; i < 50; i++) {
+            boolean charge = i % 2 == 0;
+            executor.submit(() -> {
+                if (charge) {
+                    pointService.charge(userId, 100);
+                } else {
+                    pointService.use(userId, 100);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(5000L, pointService.getUserPoint(userId).point());
+        pointService.close();
+        System.out.println("[검증] 엔진 통계: " + pointService.getEngineStats());
+
+        assertEquals(5000L, userPointTable.selectById(userId).point()); // 테이블에 최종 잔고가 기록되었는지 확인
+        assertTrue(pointService.getEngineStats().flushes() < 51); // 연속된 변경이 합쳐져 저장되었는지 확인
+    }
+
+    /**
+     * 셀 수가 상한을 넘으면 기록된 셀을 내보내고, 내보낸 사용자도 테이블에서 다시 읽어 잔고를 이어가는지 테스트
+     */
+    @Test
+    void testCellsAreEvictedAboveMaxUsers() throws InterruptedException {
+        // 셀이 자주 내보내지도록 느린 대기 없이 바로 응답하는 테이블 사용
+        UserPointTable fastTable = new UserPointTable() {
+            private final Map<Long, UserPoint> table = new ConcurrentHashMap<>();
+
+            @Override
+            public UserPoint selectById(Long id) {
+                return table.getOrDefault(id, UserPoint.empty(id));
+            }
+
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+                table.put(id, userPoint);
+                return userPoint;
+            }
+        };
+        PointProperties properties = new PointProperties();
+        properties.getEngine().setType(PointProperties.Engine.Type.ATOMIC);
+        properties.getEngine().setMaxUsers(8);
+        PointService service = new PointService(fastTable, new PointHistoryTable(), properties, new SimpleMeterRegistry());
+
+        int userCount = 40;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int round = 0; round < 5; round++) {
+            for (long userId = 1; userId <= userCount; userId++) {
+                long id = userId;
+                executor.submit(() -> service.charge(id, 100));
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        System.out.println("[검증] 엔진 통계: " + service.getEngineStats());
+
+        assertTrue(service.getEngineStats().evictions() > 0); // 상한을 넘어 셀을 내보냈는지 확인
+        for (long userId = 1; userId <= userCount; userId++) {
+            assertEquals(500L, service.getUserPoint(userId).point()); // 내보낸 뒤 다시 읽어도 충전이 빠지지 않았는지 확인
+        }
+        service.close();
+        for (long userId = 1; userId <= userCount; userId++) {
+            assertEquals(500L, fastTable.selectById(userId).point());
+        }
+    }
+
+    /**
+     * 테이블 저장이 실패하면 잠시 뒤 다시 저장해, 장애가 풀린 뒤 테이블에 잔고가 기록되는지 테스트
+     */
+    @Test
+    void testFailedFlushIsRetried() throws InterruptedException {
+        FailingUserPointTable table = new FailingUserPointTable();
+        AtomicBalanceEngine engine = newEngine(table);
+        table.failing = true;
+        engine.charge(1L, 100);
+        awaitFlushFailure(engine);
+
+        table.failing = false;
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (table.selectById(1L).point() != 100L && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        System.out.println("[검증] 엔진 통계: " + engine.stats());
+
+        assertEquals(100L, table.selectById(1L).point()); // 종료 전에 다시 저장되었는지 확인
+        assertTrue(engine.stats().flushes() >= 1);
+        engine.close();
+    }
+
+    /**
+     * 저장에 실패한 뒤 바로 종료해도 close() 가 테이블과 다른 잔고를 기록하는지 테스트
+     */
+    @Test
+    void testCloseFlushesBalancesLeftByFailedFlush() throws InterruptedException {
+        FailingUserPointTable table = new FailingUserPointTable();
+        AtomicBalanceEngine engine = newEngine(table);
+        table.failing = true;
+        engine.charge(1L, 300);
+        awaitFlushFailure(engine);
+
+        table.failing = false;
+        engine.close();
+        System.out.println("[검증] 엔진 통계: " + engine.stats());
+
+        assertEquals(300L, table.selectById(1L).point());
+    }
+
+    private static AtomicBalanceEngine newEngine(UserPointTable table) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        return new AtomicBalanceEngine(new UserPointCache(table, 0, registry), new PointMetrics(registry), 10_000L, 1, 1_000);
+    }
+
+    private static void awaitFlushFailure(AtomicBalanceEngine engine) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (engine.stats().flushFailures() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(engine.stats().flushFailures() > 0);
+    }
+
+    // failing 이 true 인 동안 저장이 실패하는 테이블 (조회는 지연 없이 응답)
+    private static class FailingUserPointTable extends UserPointTable {
+        private final Map<Long, UserPoint> table = new ConcurrentHashMap<>();
+        private volatile boolean failing;
+
+        @Override
+        public UserPoint selectById(Long id) {
+            return table.getOrDefault(id, UserPoint.empty(id));
+        }
+
+        @Override
+        public UserPoint insertOrUpdate(long id, long amount) {
+            if (failing) {
+                throw new IllegalStateException("테이블 저장 실패");
+            }
+            UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+            table.put(id, userPoint);
+            return userPoint;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.DurableUserPointStore;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.database.UserPointWal;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DurableUserPointStore 가 재시작 후 스냅샷과 WAL 로 잔고를 복구하는지 검증하는 테스트 클래스
+ */
+class DurableUserPointStoreTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("point-balance");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * 모든 fsync 정책에서 동시에 저장한 잔고가 재시작 후 새 테이블에서도 조회되는지 테스트
+     */
+    @Test
+    void balancesShouldBeRecoveredForEveryFsyncPolicy() throws Exception {
+        for (UserPointWal.FsyncPolicy policy : UserPointWal.FsyncPolicy.values()) {
+            Path policyDirectory = directory.resolve(policy.name());
+            try (DurableUserPointStore store = open(policyDirectory, policy)) {
+                ExecutorService executor = Executors.newFixedThreadPool(8);
+                List<Future<UserPoint>> futures = new ArrayList<>();
+                for (long userId = 1; userId <= 16; userId++) {
+                    long id = userId;
+                    futures.add(executor.submit(() -> store.insertOrUpdate(id, id * 100)));
+                }
+                for (Future<UserPoint> future : futures) {
+                    future.get();
+                }
+                executor.shutdown();
+            }
+
+            try (DurableUserPointStore store = open(policyDirectory, policy)) {
+                for (long userId = 1; userId <= 16; userId++) {
+                    assertEquals(userId * 100, store.selectById(userId).point(), policy + " 정책에서 잔고가 복구되지 않았습니다.");
+                }
+            }
+        }
+    }
+
+    /**
+     * 스냅샷 이후의 변경은 WAL 로 재생되고, 스냅샷에 포함된 WAL 파일은 삭제되는지 테스트
+     */
+    @Test
+    void recoveryShouldLoadSnapshotAndReplayOnlyTheTail() throws IOException {
+        DurableUserPointStore store = open(directory, UserPointWal.FsyncPolicy.PER_WRITE);
+        store.insertOrUpdate(1L, 1000);
+        store.insertOrUpdate(2L, 2000);
+        long snapshotLsn = store.snapshot();
+        store.insertOrUpdate(1L, 1500);
+        store.insertOrUpdate(3L, 3000);
+        // 종료 시 스냅샷 없이 비정상 종료된 상황을 흉내 내기 위해 파일을 복사해 두고 복구
+        Path crashed = Files.createDirectory(directory.resolve("crashed"));
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.copy(file, crashed.resolve(file.getFileName()));
+            }
+        }
+        store.close();
+
+        assertEquals(2, snapshotLsn);
+        try (Stream<Path> files = Files.list(crashed)) {
+            assertEquals(2, files.count()); // 스냅샷 1개 + 스냅샷 이후의 WAL 1개
+        }
+        try (DurableUserPointStore recovered = open(crashed, UserPointWal.FsyncPolicy.PER_WRITE)) {
+            assertEquals(1500L, recovered.selectById(1L).point());
+            assertEquals(2000L, recovered.selectById(2L).point());
+            assertEquals(3000L, recovered.selectById(3L).point());
+            assertEquals(0L, recovered.selectById(4L).point()); // 기록된 적 없는 사용자는 테이블 조회
+        }
+    }
+
+    /**
+     * WAL 끝에 기록 도중 끊긴 조각이 있어도 그 앞까지는 복구되고 이후 기록이 이어지는지 테스트
+     */
+    @Test
+    void tornTailShouldBeTruncated() throws IOException {
+        DurableUserPointStore store = open(directory, UserPointWal.FsyncPolicy.PER_WRITE);
+        store.insertOrUpdate(1L, 1000);
+        Path crashed = Files.createDirectory(directory.resolve("crashed"));
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.copy(file, crashed.resolve(file.getFileName()));
+                Files.write(crashed.resolve(file.getFileName()), new byte[]{1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+            }
+        }
+        store.close();
+
+        try (DurableUserPointStore recovered = open(crashed, UserPointWal.FsyncPolicy.PER_WRITE)) {
+            assertEquals(1000L, recovered.selectById(1L).point());
+            recovered.insertOrUpdate(2L, 2000);
+        }
+        try (DurableUserPointStore recovered = open(crashed, UserPointWal.FsyncPolicy.PER_WRITE)) {
+            assertEquals(2000L, recovered.selectById(2L).point());
+        }
+    }
+
+    /**
+     * 테이블에 쓰는 도중 멈춰도 WAL 에 먼저 기록된 잔고가 복구되고, 테이블 저장이 실패한 변경은 복구되지 않는지 테스트
+     */
+    @Test
+    void walShouldBeWrittenBeforeTable() throws IOException {
+        Path crashed = directory.resolve("crashed");
+        UserPointTable table = new UserPointTable() {
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                if (amount == 9999) {
+                    throw new IllegalStateException("테이블 저장 실패");
+                }
+                if (amount == 2000) {
+                    // 테이블에 쓰기 직전에 멈춘 상황을 흉내 내기 위해 이 시점의 파일을 복사
+                    copyFiles(directory, crashed);
+                }
+                return super.insertOrUpdate(id, amount);
+            }
+        };
+        try (DurableUserPointStore store = DurableUserPointStore.open(table, directory, UserPointWal.FsyncPolicy.PER_WRITE, 10, 0)) {
+            store.insertOrUpdate(1L, 1000);
+            assertThrows(IllegalStateException.class, () -> store.insertOrUpdate(1L, 9999));
+            assertEquals(1000L, store.selectById(1L).point());
+            store.insertOrUpdate(2L, 2000);
+        }
+
+        try (DurableUserPointStore recovered = open(crashed, UserPointWal.FsyncPolicy.PER_WRITE)) {
+            System.out.println("[검증] 복구된 잔고: " + recovered.selectById(1L) + ", " + recovered.selectById(2L));
+            assertEquals(1000L, recovered.selectById(1L).point()); // 실패한 9999 는 되살아나지 않음
+            assertEquals(2000L, recovered.selectById(2L).point()); // 테이블에 쓰기 전에 WAL 에 기록됨
+        }
+    }
+
+    private static void copyFiles(Path from, Path to) {
+        try {
+            Files.createDirectories(to);
+            try (Stream<Path> files = Files.list(from)) {
+                for (Path file : files.filter(Files::isRegularFile).toList()) {
+                    Files.copy(file, to.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static DurableUserPointStore open(Path directory, UserPointWal.FsyncPolicy policy) {
+        return DurableUserPointStore.open(new UserPointTable(), directory, policy, 10, 0);
+    }
+}
@@ -0,0 +1,153 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.HotUserTracker;
+import io.hhplus.tdd.point.PointProperties;
+import io.hhplus.tdd.point.PointService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 요청이 몰리는 사용자 추적기가 상위 사용자와 그 사용자의 경합 정보를 기록하는지 검증하는 테스트 클래스
+ */
+class HotUserTrackerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    /**
+     * 소수 사용자에게 요청이 몰리면 추적 가능한 수보다 사용자가 많아도 그 사용자들이 상위에 오는지 테스트
+     */
+    @Test
+    void skewedTrafficShouldRankHotUsersFirst() throws Exception {
+        HotUserTracker tracker = new HotUserTracker(10, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int t = 0; t < 8; t++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        // 절반은 사용자 1, 1/4 은 사용자 2, 나머지는 1000명에게 고르게
+                        long userId = i % 2 == 0 ? 1L : i % 4 == 1 ? 2L : 100L + i % 1000;
+                        tracker.record(userId);
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        List<HotUserTracker.HotUser> top = tracker.top(2);
+
+        assertEquals(2, top.size());
+        assertEquals(1L, top.get(0).userId());
+        assertEquals(2L, top.get(1).userId());
+        // 버퍼가 넘치면 일부 기록을 버리므로 근사치 (count - error 는 실제 요청 수 이하)
+        assertTrue(top.get(0).count() - top.get(0).error() <= 40_000);
+        assertTrue(top.get(0).count() > top.get(1).count());
+    }
+
+    /**
+     * 자리가 없으면 가장 적게 센 사용자를 밀어내고 그 수를 오차로 이어받는지 테스트
+     */
+    @Test
+    void newUserShouldReplaceMinimumAndInheritItsCount() {
+        HotUserTracker tracker = new HotUserTracker(2, 0);
+        record(tracker, 1L, 5);
+        record(tracker, 2L, 3);
+        record(tracker, 3L, 1);
+
+        List<HotUserTracker.HotUser> top = tracker.top(10);
+
+        assertEquals(2, top.size());
+        assertEquals(1L, top.get(0).userId());
+        assertEquals(3L, top.get(1).userId());
+        assertEquals(4L, top.get(1).count());
+        assertEquals(3L, top.get(1).error());
+    }
+
+    /**
+     * 주기가 지나면 요청 수가 절반으로 줄어 최근에 몰린 사용자가 위로 오는지 테스트
+     */
+    @Test
+    void countsShouldDecayEachInterval() {
+        HotUserTracker tracker = new HotUserTracker(10, 1000, () -> TimeUnit.MILLISECONDS.toNanos(now.get()));
+        record(tracker, 1L, 8);
+        assertEquals(8L, tracker.top(1).get(0).count());
+
+        now.set(1000);
+        record(tracker, 2L, 6);
+
+        List<HotUserTracker.HotUser> top = tracker.top(10);
+        assertEquals(2L, top.get(0).userId());
+        assertEquals(6L, top.get(0).count());
+        assertEquals(4L, top.get(1).count());
+    }
+
+    /**
+     * 추적 중인 사용자의 대기 중인 요청 수와 락 대기 시간만 기록하는지 테스트
+     */
+    @Test
+    void contentionShouldBeRecordedForTrackedUsers() {
+        HotUserTracker tracker = new HotUserTracker(1, 0);
+        tracker.enter(1L);
+        tracker.top(1);
+
+        tracker.enter(1L);
+        tracker.enter(1L);
+        tracker.lockWaited(1L, TimeUnit.MILLISECONDS.toNanos(2));
+        tracker.lockWaited(1L, TimeUnit.MILLISECONDS.toNanos(4));
+        tracker.exit(1L);
+        // 추적하지 않는 사용자는 무시
+        tracker.lockWaited(2L, TimeUnit.SECONDS.toNanos(1));
+
+        HotUserTracker.HotUser hotUser = tracker.top(1).get(0);
+        assertEquals(1L, hotUser.userId());
+        assertEquals(1, hotUser.queued());
+        assertEquals(2L, hotUser.lockWaits());
+        assertEquals(3000L, hotUser.avgLockWaitMicros());
+        assertEquals(4000L, hotUser.maxLockWaitMicros());
+    }
+
+    /**
+     * 추적을 켜면 PointService 의 조회/충전/사용 요청이 집계되고, 끄면 빈 목록을 반환하는지 테스트
+     */
+    @Test
+    void pointServiceShouldFeedTrackerWhenEnabled() {
+        PointProperties properties = new PointProperties();
+        PointService disabled = new PointService(new UserPointTable(), new PointHistoryTable(), properties, new SimpleMeterRegistry());
+        disabled.charge(1L, 100);
+        assertTrue(disabled.getHotUsers(10).isEmpty());
+
+        properties.getHotUsers().setEnabled(true);
+        PointService pointService = new PointService(new UserPointTable(), new PointHistoryTable(), properties, new SimpleMeterRegistry());
+        for (int i = 0; i < 5; i++) {
+            pointService.charge(1L, 100);
+            pointService.getUserPoint(1L);
+        }
+        pointService.use(1L, 100);
+        pointService.getUserPoint(2L);
+
+        List<HotUserTracker.HotUser> top = pointService.getHotUsers(10);
+        assertEquals(1L, top.get(0).userId());
+        assertEquals(11L, top.get(0).count());
+        assertEquals(0, top.get(0).queued());
+        assertEquals(2L, top.get(1).userId());
+    }
+
+    private static void record(HotUserTracker tracker, long userId, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(userId);
+        }
+        // 버퍼에 남은 기록을 순서대로 반영
+        tracker.top(1);
+    }
+}
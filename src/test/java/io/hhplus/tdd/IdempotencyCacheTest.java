@@ -0,0 +1,190 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.IdempotencyCache;
+import io.hhplus.tdd.point.PointOverloadedException;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Idempotency-Key 결과 캐시가 재시도 요청을 다시 처리하지 않고 처음 결과를 반환하는지 검증하는 테스트 클래스
+ */
+class IdempotencyCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final IdempotencyCache cache = new IdempotencyCache(2, 1000, () -> TimeUnit.MILLISECONDS.toNanos(now.get()));
+
+    /**
+     * 같은 키로 다시 요청하면 작업을 실행하지 않고 저장된 결과를 반환하는지 테스트
+     */
+    @Test
+    void duplicateKeyShouldReturnStoredResultWithoutRunningAction() {
+        AtomicInteger calls = new AtomicInteger();
+
+        UserPoint first = cache.execute("key-1", 1L, TransactionType.CHARGE, 100, () -> new UserPoint(1L, calls.incrementAndGet() * 100L, 0));
+        UserPoint retried = cache.execute("key-1", 1L, TransactionType.CHARGE, 100, () -> new UserPoint(1L, calls.incrementAndGet() * 100L, 0));
+
+        assertEquals(first, retried);
+        assertEquals(1, calls.get());
+        assertEquals(1L, cache.stats().replays());
+        // 같은 키라도 사용자나 충전/사용 구분이 다르면 다른 요청으로 처리
+        cache.execute("key-1", 1L, TransactionType.USE, 100, () -> new UserPoint(1L, calls.incrementAndGet(), 0));
+        assertEquals(2, calls.get());
+    }
+
+    /**
+     * 처리 중인 요청과 같은 키로 동시에 들어온 요청은 작업을 다시 실행하지 않고 원래 요청의 결과를 기다리는지 테스트
+     */
+    @Test
+    void concurrentDuplicatesShouldWaitForInFlightOriginal() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            List<Future<UserPoint>> results = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                results.add(executor.submit(() -> cache.execute("key-1", 1L, TransactionType.CHARGE, 100, () -> {
+                    calls.incrementAndGet();
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(200);
+                    } catch (InterruptedException ignored) {
+                    }
+                    return new UserPoint(1L, 100, 0);
+                })));
+            }
+            for (Future<UserPoint> result : results) {
+                assertEquals(100L, result.get(5, TimeUnit.SECONDS).point());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        System.out.println("[검증] 캐시 통계: " + cache.stats());
+
+        assertEquals(1, calls.get()); // 작업은 한 번만 실행
+        assertEquals(9L, cache.stats().replays() + cache.stats().joins());
+    }
+
+    /**
+     * 검증에 실패한(처리되지 않은) 요청은 저장하지 않아 같은 키로 다시 시도하면 새로 처리하는지 테스트
+     */
+    @Test
+    void failedResultShouldNotBeStored() {
+        assertThrows(IllegalArgumentException.class, () -> cache.execute("key-1", 1L, TransactionType.USE, 100, () -> {
+            throw new IllegalArgumentException("잔고가 부족합니다.");
+        }));
+
+        UserPoint retried = cache.execute("key-1", 1L, TransactionType.USE, 100, () -> new UserPoint(1L, 0, 0));
+
+        assertEquals(0L, retried.point());
+        assertEquals(2L, cache.stats().executions());
+    }
+
+    /**
+     * 반영 여부를 알 수 없는 실패는 보관해 같은 키로 다시 시도해도 작업을 다시 실행하지 않는지 테스트
+     */
+    @Test
+    void ambiguousFailureShouldBeStored() {
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(IllegalStateException.class, () -> cache.execute("key-1", 1L, TransactionType.CHARGE, 100, () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("내역 기록 실패");
+        }));
+
+        assertThrows(IllegalStateException.class,
+                () -> cache.execute("key-1", 1L, TransactionType.CHARGE, 100, () -> new UserPoint(1L, calls.incrementAndGet(), 0)));
+        assertEquals(1, calls.get());
+
+        // ttl 이 지나면 다시 처리
+        now.addAndGet(1000);
+        cache.execute("key-1", 1L, TransactionType.CHARGE, 100, () -> new UserPoint(1L, calls.incrementAndGet(), 0));
+        assertEquals(2, calls.get());
+    }
+
+    /**
+     * 같은 키로 금액이 다른 요청을 보내면 거절하는지 테스트
+     */
+    @Test
+    void sameKeyWithDifferentAmountShouldBeRejected() {
+        cache.execute("key-1", 1L, TransactionType.CHARGE, 100, () -> new UserPoint(1L, 100, 0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> cache.execute("key-1", 1L, TransactionType.CHARGE, 200, () -> new UserPoint(1L, 300, 0)));
+    }
+
+    /**
+     * ttl 이 지난 키와 최대 크기를 넘는 오래된 키는 제거되어 다시 처리되는지 테스트
+     */
+    @Test
+    void expiredAndOldestKeysShouldBeEvicted() {
+        AtomicInteger calls = new AtomicInteger();
+        cache.execute("key-1", 1L, TransactionType.CHARGE, 100, () -> new UserPoint(1L, calls.incrementAndGet(), 0));
+        cache.execute("key-2", 1L, TransactionType.CHARGE, 100, () -> new UserPoint(1L, calls.incrementAndGet(), 0));
+        cache.execute("key-3", 1L, TransactionType.CHARGE, 100, () -> new UserPoint(1L, calls.incrementAndGet(), 0));
+
+        assertEquals(2, cache.stats().size()); // 최대 크기 2 를 넘어 가장 오래된 key-1 제거
+        cache.execute("key-1", 1L, TransactionType.CHARGE, 100, () -> new UserPoint(1L, calls.incrementAndGet(), 0));
+        assertEquals(4, calls.get());
+
+        now.addAndGet(1000); // ttl 경과
+        cache.execute("key-3", 1L, TransactionType.CHARGE, 100, () -> new UserPoint(1L, calls.incrementAndGet(), 0));
+        assertEquals(5, calls.get());
+    }
+
+    /**
+     * 처리 중인 키는 최대 크기를 넘어도 제거하지 않고, 처리 중인 키만으로 가득 차면 새 키를 거절하는지 테스트
+     */
+    @Test
+    void inFlightKeysShouldNotBeEvicted() {
+        CompletableFuture<UserPoint> first = new CompletableFuture<>();
+        CompletableFuture<UserPoint> second = new CompletableFuture<>();
+        cache.executeAsync("key-1", 1L, TransactionType.CHARGE, 100, () -> first);
+        cache.executeAsync("key-2", 1L, TransactionType.CHARGE, 100, () -> second);
+
+        PointOverloadedException e = assertThrows(PointOverloadedException.class,
+                () -> cache.execute("key-3", 1L, TransactionType.CHARGE, 100, () -> new UserPoint(1L, 100, 0)));
+        System.out.println("[검증] 거절 사유: " + e.getReason() + ", 캐시 통계: " + cache.stats());
+
+        assertEquals(PointOverloadedException.Reason.IDEMPOTENCY_FULL, e.getReason());
+        assertEquals(0L, cache.stats().evictions());
+        AtomicInteger calls = new AtomicInteger();
+        cache.executeAsync("key-1", 1L, TransactionType.CHARGE, 100, () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        assertEquals(0, calls.get()); // 처리 중인 원래 요청을 기다리고 다시 실행하지 않음
+
+        first.complete(new UserPoint(1L, 100, 0));
+        assertEquals(200L, cache.execute("key-3", 1L, TransactionType.CHARGE, 100, () -> new UserPoint(1L, 200, 0)).point());
+        assertEquals(1L, cache.stats().evictions()); // 완료된 key-1 만 제거
+    }
+
+    /**
+     * 실패로 지웠다가 다시 등록한 키가 예전 순서로 먼저 제거되지 않는지 테스트
+     */
+    @Test
+    void reRegisteredKeyShouldKeepItsNewOrder() {
+        cache.execute("key-0", 1L, TransactionType.USE, 100, () -> new UserPoint(1L, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> cache.execute("key-1", 1L, TransactionType.USE, 100, () -> {
+            throw new IllegalArgumentException("잔고가 부족합니다.");
+        }));
+        cache.execute("key-2", 1L, TransactionType.USE, 100, () -> new UserPoint(1L, 2, 0));
+        cache.execute("key-1", 1L, TransactionType.USE, 100, () -> new UserPoint(1L, 1, 0)); // key-0 제거
+        cache.execute("key-3", 1L, TransactionType.USE, 100, () -> new UserPoint(1L, 3, 0)); // 남은 키 중 가장 오래된 key-2 제거
+
+        AtomicInteger calls = new AtomicInteger();
+        assertEquals(1L, cache.execute("key-1", 1L, TransactionType.USE, 100, () -> new UserPoint(1L, calls.incrementAndGet(), 0)).point());
+        assertEquals(0, calls.get());
+        assertEquals(2, cache.stats().size());
+    }
+}
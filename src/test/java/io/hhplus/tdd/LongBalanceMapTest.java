@@ -0,0 +1,143 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.LongBalanceMap;
+import io.hhplus.tdd.database.PrimitiveUserPointStore;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LongBalanceMap 과 이를 사용하는 PrimitiveUserPointStore 를 검증하는 테스트 클래스
+ */
+class LongBalanceMapTest {
+
+    /**
+     * 크기 조정을 여러 번 거친 뒤에도 모든 항목이 남아 있는지 테스트
+     */
+    @Test
+    void entriesShouldSurviveResize() {
+        LongBalanceMap map = new LongBalanceMap();
+        for (long id = 1; id <= 100_000; id++) {
+            map.put(id, id * 10, id);
+        }
+        map.put(7L, 1L, 2L); // 기존 키 덮어쓰기
+
+        assertEquals(100_000, map.size());
+        assertEquals(1L, map.point(7L, -1));
+        assertEquals(new UserPoint(99_999L, 999_990L, 99_999L), map.get(99_999L));
+        assertEquals(-1L, map.point(100_001L, -1)); // 없는 키는 기본값
+        assertNull(map.get(100_001L));
+        assertFalse(map.putIfAbsent(1L, 0L, 0L)); // 이미 있는 키는 덮어쓰지 않음
+        assertEquals(10L, map.point(1L, -1));
+    }
+
+    /**
+     * 항목을 지워도 같은 탐사 경로에 있던 나머지 항목을 계속 찾을 수 있고, trimTo 는 남길 항목을 건너뛰는지 테스트
+     */
+    @Test
+    void removeAndTrimShouldKeepRemainingEntriesReachable() {
+        LongBalanceMap map = new LongBalanceMap(16);
+        for (long id = 1; id <= 10_000; id++) {
+            map.put(id, id, id);
+        }
+        for (long id = 1; id <= 10_000; id += 2) {
+            assertTrue(map.remove(id));
+        }
+        assertFalse(map.remove(1L)); // 이미 지운 키
+        assertEquals(5_000, map.size());
+        for (long id = 1; id <= 10_000; id++) {
+            assertEquals(id % 2 == 0 ? id : -1L, map.point(id, -1), "잘못된 조회 결과: " + id);
+        }
+
+        int removed = map.trimTo(1_000, id -> id <= 100); // 사용자 1~100 은 남김
+        System.out.println("[검증] trimTo 로 지운 항목 수: " + removed);
+
+        assertEquals(1_000, map.size());
+        assertEquals(4_000, removed);
+        for (long id = 2; id <= 100; id += 2) {
+            assertEquals(id, map.point(id, -1)); // 남길 항목은 지우지 않음
+        }
+        int[] reachable = {0};
+        map.forEach((id, point, updateMillis) -> {
+            assertEquals(id, map.point(id, -1)); // 남은 항목은 모두 조회 가능
+            reachable[0]++;
+        });
+        assertEquals(1_000, reachable[0]);
+    }
+
+    /**
+     * 쓰기와 크기 조정이 진행되는 동안 읽은 잔고와 수정 시각이 항상 같은 시점의 값인지 테스트
+     * - 쓰기 스레드는 잔고와 수정 시각을 항상 같은 값으로 저장하므로, 두 값이 다르면 중간 상태를 읽은 것
+     */
+    @Test
+    void readersShouldSeeConsistentPairsDuringWritesAndResize() throws Exception {
+        LongBalanceMap map = new LongBalanceMap();
+        map.put(1L, 0L, 0L);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        CountDownLatch started = new CountDownLatch(4);
+        try {
+            Future<?>[] readers = new Future<?>[4];
+            for (int r = 0; r < readers.length; r++) {
+                readers[r] = executor.submit(() -> {
+                    started.countDown();
+                    long last = 0;
+                    while (running.get()) {
+                        UserPoint userPoint = map.get(1L);
+                        assertNotNull(userPoint); // 크기 조정 중에도 기존 키가 보여야 함
+                        assertEquals(userPoint.point(), userPoint.updateMillis());
+                        assertTrue(userPoint.point() >= last); // 이미 읽은 값보다 이전 값으로 돌아가지 않음
+                        last = userPoint.point();
+                    }
+                    return null;
+                });
+            }
+            started.await();
+            executor.submit(() -> {
+                for (long i = 1; i <= 200_000; i++) {
+                    map.put(1L, i, i);
+                    map.put(i + 1, i, i); // 새 키를 계속 넣어 크기 조정을 일으킴
+                }
+            }).get(30, TimeUnit.SECONDS);
+            running.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+
+        assertEquals(200_000L, map.point(1L, -1));
+        assertEquals(200_001, map.size());
+    }
+
+    /**
+     * 저장소가 처음 한 번만 테이블에서 읽고, 이후에는 저장한 잔고를 맵에서 반환하는지 테스트
+     */
+    @Test
+    void storeShouldReadThroughOnceAndWriteThrough() {
+        UserPointTable userPointTable = new UserPointTable();
+        userPointTable.insertOrUpdate(1L, 500L);
+        PrimitiveUserPointStore store = new PrimitiveUserPointStore(userPointTable);
+
+        assertEquals(-1L, store.pointOf(1L, -1)); // 조회 전에는 맵에 없음
+        assertEquals(500L, store.selectById(1L).point()); // 테이블에서 읽어 채움
+        assertEquals(500L, store.pointOf(1L, -1));
+
+        store.insertOrUpdate(1L, 800L);
+
+        assertEquals(800L, store.selectById(1L).point());
+        assertEquals(800L, userPointTable.selectById(1L).point()); // 테이블에도 기록되었는지 확인
+        assertEquals(1, store.size());
+    }
+}
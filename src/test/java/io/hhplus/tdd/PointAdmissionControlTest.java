@@ -0,0 +1,255 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.PointOverloadedException;
+import io.hhplus.tdd.point.PointProperties;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.UserRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 한 사용자에게 요청이 몰릴 때 사용자별 허용량과 대기 제한으로 바로 거절하고, 같은 스트라이프의 다른 사용자는 영향을 받지 않는지 검증하는 테스트 클래스
+ */
+class PointAdmissionControlTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    /**
+     * 버킷의 토큰을 다 쓰면 거절되고, 시간이 지나 토큰이 채워지면 다시 받아들이는지 테스트
+     */
+    @Test
+    void tokensShouldBeConsumedAndRefilled() {
+        UserRateLimiter limiter = new UserRateLimiter(3, 10, 100, now::get, new SimpleMeterRegistry());
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(1L);
+        }
+
+        PointOverloadedException e = assertThrows(PointOverloadedException.class, () -> limiter.acquire(1L));
+        assertEquals(PointOverloadedException.Reason.RATE_LIMITED, e.getReason());
+        assertEquals(1, e.getRetryAfterSeconds());
+        // 다른 사용자는 영향을 받지 않음
+        limiter.acquire(2L);
+
+        // 초당 10개이므로 100ms 후 1개 채워짐
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        limiter.acquire(1L);
+        assertThrows(PointOverloadedException.class, () -> limiter.acquire(1L));
+    }
+
+    /**
+     * 버킷 수가 최대치에 도달하면 가득 찬 버킷을 정리해 새 사용자의 자리를 만드는지 테스트
+     */
+    @Test
+    void idleBucketsShouldBeSweptWhenFull() {
+        UserRateLimiter limiter = new UserRateLimiter(1, 1, 2, now::get, new SimpleMeterRegistry());
+        limiter.acquire(1L);
+        limiter.acquire(2L);
+        // 자리가 없고 정리할 버킷도 없으면 새 사용자는 제한 없이 통과
+        limiter.acquire(3L);
+        limiter.acquire(3L);
+        assertEquals(2, limiter.size());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        limiter.acquire(3L);
+
+        assertEquals(1, limiter.size());
+        assertThrows(PointOverloadedException.class, () -> limiter.acquire(3L));
+    }
+
+    /**
+     * 대기 시간을 넘긴 요청은 거절되고, 거절된 요청은 잔고에 반영되지 않는지 테스트 (요청 결합 모드)
+     */
+    @Test
+    void timedOutChargesShouldNotBeApplied() throws Exception {
+        PointProperties properties = new PointProperties();
+        properties.getLock().setAcquireTimeoutMillis(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PointService pointService = new PointService(new UserPointTable(), new PointHistoryTable(), properties, registry);
+        pointService.charge(1L, 0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        List<Future<UserPoint>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 200; i++) {
+                results.add(executor.submit(() -> pointService.charge(1L, 10)));
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        int succeeded = 0;
+        int overloaded = 0;
+        for (Future<UserPoint> result : results) {
+            try {
+                result.get();
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(PointOverloadedException.class, e.getCause());
+                overloaded++;
+            }
+        }
+        System.out.println("[검증] 성공: " + succeeded + ", 거절: " + overloaded);
+        assertEquals(200, succeeded + overloaded);
+        // 성공한 요청만 잔고에 반영
+        assertEquals(succeeded * 10L, pointService.getUserPoint(1L).point());
+        // 시간을 넘겼어도 이미 꺼내져 처리 중인 요청은 끝까지 처리되어 성공으로 반환되고, 거절한 요청만 집계
+        assertTrue(overloaded > 0);
+        assertEquals((double) overloaded, registry.get("point.overloads").tag("reason", "lock_timeout").counter().count());
+    }
+
+    /**
+     * 같은 스트라이프를 쓰는 다른 사용자는 한 사용자의 대기 요청 수 제한에 걸리지 않는지 테스트
+     */
+    @Test
+    void waiterLimitShouldApplyPerUser() throws Exception {
+        PointProperties properties = new PointProperties();
+        // 모든 사용자가 하나의 스트라이프를 공유
+        properties.getLock().setStripes(1);
+        properties.getLock().setMaxWaiters(1);
+        PointService pointService = new PointService(new UserPointTable(), new PointHistoryTable(), properties, new SimpleMeterRegistry());
+
+        Map<Long, Outcome> outcomes = chargeConcurrently(pointService, 20);
+
+        System.out.println("[검증] 사용자별 결과: " + outcomes);
+        // 요청이 몰린 사용자 1 은 처리 중 묶음과 대기 1건을 넘는 요청이 거절됨
+        assertTrue(outcomes.get(1L).queueFull() > 0);
+        assertTrue(outcomes.get(1L).succeeded() > 0);
+        assertEquals(outcomes.get(1L).succeeded() * 10L, pointService.getUserPoint(1L).point());
+        // 다른 사용자는 거절되지 않음
+        for (long userId = 2; userId <= 5; userId++) {
+            assertEquals(new Outcome(1, 0, 0), outcomes.get(userId), "사용자 " + userId);
+            assertEquals(10L, pointService.getUserPoint(userId).point());
+        }
+    }
+
+    /**
+     * 같은 스트라이프를 쓰는 다른 사용자는 한 사용자의 처리를 기다리지 않아 대기 시간 제한에 걸리지 않는지 테스트
+     */
+    @Test
+    void timeoutShouldApplyPerUser() throws Exception {
+        PointProperties properties = new PointProperties();
+        properties.getLock().setStripes(1);
+        properties.getLock().setAcquireTimeoutMillis(100);
+        // 요청을 묶지 않고 한 건씩 처리해 사용자 1 의 대기 요청이 제한 시간을 넘기도록 함
+        properties.getCombining().setEnabled(false);
+        PointService pointService = new PointService(new UserPointTable(), new PointHistoryTable(), properties, new SimpleMeterRegistry());
+
+        Map<Long, Outcome> outcomes = chargeConcurrently(pointService, 10);
+
+        System.out.println("[검증] 사용자별 결과: " + outcomes);
+        assertTrue(outcomes.get(1L).timedOut() > 0);
+        assertEquals(outcomes.get(1L).succeeded() * 10L, pointService.getUserPoint(1L).point());
+        for (long userId = 2; userId <= 5; userId++) {
+            assertEquals(new Outcome(1, 0, 0), outcomes.get(userId), "사용자 " + userId);
+        }
+    }
+
+    /**
+     * 한 사용자의 테이블 저장이 멈춰 있어도 같은 스트라이프의 다른 사용자 요청은 그 처리를 기다리지 않고 끝나는지 테스트
+     */
+    @Test
+    void slowUserShouldNotBlockStripeMates() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        UserPointTable userPointTable = new UserPointTable() {
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                if (id == 1L) {
+                    writing.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.insertOrUpdate(id, amount);
+            }
+        };
+        PointProperties properties = new PointProperties();
+        properties.getLock().setStripes(1);
+        PointService pointService = new PointService(userPointTable, new PointHistoryTable(), properties, new SimpleMeterRegistry());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<UserPoint> slow = executor.submit(() -> pointService.charge(1L, 10));
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+            long start = System.nanoTime();
+            UserPoint other = executor.submit(() -> pointService.charge(2L, 10)).get(5, TimeUnit.SECONDS);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            System.out.println("[검증] 다른 사용자 처리 시간(ms): " + elapsedMillis + ", 스트라이프 락 통계: " + pointService.getLockStats());
+            assertEquals(10L, other.point());
+            assertFalse(slow.isDone(), "사용자 1 의 저장은 아직 멈춰 있어야 합니다.");
+            release.countDown();
+            assertEquals(10L, slow.get(5, TimeUnit.SECONDS).point());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    // 사용자 1 에 floodCount 건을 몰아서 충전하고, 처리가 시작된 뒤 사용자 2~5 가 한 건씩 충전한 결과
+    private Map<Long, Outcome> chargeConcurrently(PointService pointService, int floodCount) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(floodCount + 4);
+        Map<Long, List<Future<UserPoint>>> results = new TreeMap<>();
+        try {
+            for (int i = 0; i < floodCount; i++) {
+                results.computeIfAbsent(1L, id -> new ArrayList<>()).add(executor.submit(() -> pointService.charge(1L, 10)));
+            }
+            Thread.sleep(50);
+            for (long userId = 2; userId <= 5; userId++) {
+                long id = userId;
+                results.computeIfAbsent(id, key -> new ArrayList<>()).add(executor.submit(() -> pointService.charge(id, 10)));
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        }
+
+        Map<Long, Outcome> outcomes = new TreeMap<>();
+        results.forEach((userId, futures) -> {
+            int succeeded = 0;
+            int queueFull = 0;
+            int timedOut = 0;
+            for (Future<UserPoint> future : futures) {
+                try {
+                    future.get();
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    PointOverloadedException overloaded = assertInstanceOf(PointOverloadedException.class, e.getCause());
+                    if (overloaded.getReason() == PointOverloadedException.Reason.LOCK_QUEUE_FULL) {
+                        queueFull++;
+                    } else {
+                        timedOut++;
+                    }
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            outcomes.put(userId, new Outcome(succeeded, queueFull, timedOut));
+        });
+        return outcomes;
+    }
+
+    private record Outcome(int succeeded, int queueFull, int timedOut) {
+    }
+}
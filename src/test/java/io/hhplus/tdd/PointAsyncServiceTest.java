@@ -0,0 +1,137 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.IdempotencyCache;
+import io.hhplus.tdd.point.PointAsyncService;
+import io.hhplus.tdd.point.PointProperties;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 비동기 API 가 전용 작업 스레드 풀에서 실행되고, 마감 시간 초과와 풀 포화 시 바로 실패하는지 검증하는 테스트 클래스
+ */
+class PointAsyncServiceTest {
+
+    // 느린 사용자 ID (조회에 1초 소요)
+    private static final long SLOW_USER_ID = 99L;
+
+    private ThreadPoolExecutor executor;
+    private PointAsyncService pointAsyncService;
+
+    @BeforeEach
+    void setUp() {
+        UserPointTable userPointTable = new UserPointTable() {
+            @Override
+            public UserPoint selectById(Long id) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(id == SLOW_USER_ID ? 1000 : 20);
+                } catch (InterruptedException ignored) {
+                }
+                return UserPoint.empty(id);
+            }
+        };
+        PointService pointService = new PointService(userPointTable, new PointHistoryTable());
+        executor = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(2));
+        PointProperties properties = new PointProperties();
+        properties.getAsync().setTimeoutMillis(300);
+        pointAsyncService = new PointAsyncService(pointService, executor, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 작업 스레드에서 조회한 결과를 반환하는지 테스트
+     */
+    @Test
+    void shouldCompleteOnWorkerThread() throws Exception {
+        UserPoint result = pointAsyncService.getUserPoint(1L).get(1, TimeUnit.SECONDS);
+
+        assertEquals(1L, result.id());
+        assertEquals(1L, executor.getTaskCount()); // 전용 작업 스레드 풀에 제출되었는지 확인
+    }
+
+    /**
+     * 마감 시간을 넘긴 요청은 작업이 끝나기를 기다리지 않고 TimeoutException 으로 완료되는지 테스트
+     */
+    @Test
+    void shouldFailWithTimeoutAfterDeadline() {
+        long start = System.nanoTime();
+        CompletableFuture<UserPoint> result = pointAsyncService.getUserPoint(SLOW_USER_ID);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(2, TimeUnit.SECONDS));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println("[검증] 마감 시간 초과까지 걸린 시간: " + elapsedMillis + "ms");
+
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+        assertTrue(elapsedMillis < 900); // 느린 조회(1초)가 끝나기 전에 실패했는지 확인
+    }
+
+    /**
+     * 작업 스레드와 대기열이 모두 찬 뒤의 요청은 기다리지 않고 RejectedExecutionException 으로 완료되는지 테스트
+     */
+    @Test
+    void shouldRejectWhenExecutorIsSaturated() {
+        List<CompletableFuture<UserPoint>> results = new ArrayList<>();
+        RejectedExecutionException rejected = null;
+        // 작업 스레드 2개 + 대기열 2개를 느린 조회로 채운 뒤 한 건 더 요청
+        for (int i = 0; i < 5 && rejected == null; i++) {
+            try {
+                results.add(pointAsyncService.getUserPoint(SLOW_USER_ID));
+            } catch (RejectedExecutionException e) {
+                rejected = e;
+            }
+        }
+
+        assertNotNull(rejected);
+        assertEquals(4, results.size());
+    }
+
+    /**
+     * 마감 시간을 넘긴 요청을 같은 Idempotency-Key 로 다시 보내면 새로 처리하지 않고 원래 작업의 결과를 받는지 테스트
+     */
+    @Test
+    void retryAfterTimeoutShouldNotApplyTwice() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(100, 60_000, System::nanoTime);
+        AtomicInteger started = new AtomicInteger();
+        Supplier<CompletableFuture<UserPoint>> charge = () -> {
+            started.incrementAndGet();
+            return pointAsyncService.startChargeAndRecord(SLOW_USER_ID, 100);
+        };
+
+        CompletableFuture<UserPoint> first = pointAsyncService.withDeadline(
+                cache.executeAsync("key-1", SLOW_USER_ID, TransactionType.CHARGE, 100, charge));
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> first.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+
+        // 마감 시간이 지난 뒤 같은 키로 재시도하면 아직 처리 중인 원래 작업의 결과를 받음
+        UserPoint retried = cache.executeAsync("key-1", SLOW_USER_ID, TransactionType.CHARGE, 100, charge).get(5, TimeUnit.SECONDS);
+        System.out.println("[검증] 캐시 통계: " + cache.stats());
+
+        assertEquals(100L, retried.point());
+        assertEquals(1, started.get());
+        assertEquals(1L, cache.stats().executions());
+        assertEquals(1L, cache.stats().joins());
+    }
+}
@@ -0,0 +1,116 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.ChargeBatchItem;
+import io.hhplus.tdd.point.ChargeBatchResult;
+import io.hhplus.tdd.point.PointBatchService;
+import io.hhplus.tdd.point.PointProperties;
+import io.hhplus.tdd.point.PointService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 일괄 충전이 사용자별 순서를 지키면서 서로 다른 사용자를 병렬로 처리하는지 검증하는 테스트 클래스
+ */
+class PointBatchServiceTest {
+
+    private PointService pointService;
+    private ExecutorService executor;
+    private PointBatchService pointBatchService;
+
+    @BeforeEach
+    void setUp() {
+        pointService = new PointService(new UserPointTable(), new PointHistoryTable());
+        executor = Executors.newFixedThreadPool(16);
+        pointBatchService = new PointBatchService(pointService, executor, new PointProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 같은 사용자의 요청은 순서대로 처리되어, 중간 요청만 최대 잔고 초과로 실패하는지 테스트
+     */
+    @Test
+    void sameUserItemsShouldBeAppliedInOrder() {
+        List<ChargeBatchItem> items = List.of(
+                new ChargeBatchItem(1L, 6000),
+                new ChargeBatchItem(2L, 1000),
+                new ChargeBatchItem(1L, 5000),
+                new ChargeBatchItem(1L, 4000));
+
+        List<ChargeBatchResult> results = pointBatchService.chargeAll(items, item -> { });
+
+        assertTrue(results.get(0).success());
+        assertTrue(results.get(1).success());
+        assertFalse(results.get(2).success()); // 6000 + 5000 은 최대 잔고 초과
+        assertEquals("최대 잔고는 10,000원을 초과할 수 없습니다.", results.get(2).message());
+        assertEquals(10000L, results.get(3).userPoint().point()); // 6000 + 4000
+        assertEquals(10000L, pointService.getUserPoint(1L).point());
+        assertEquals(1000L, pointService.getUserPoint(2L).point());
+    }
+
+    /**
+     * 검증에 실패한 항목은 실패 결과로만 반환되고 나머지 항목은 처리되는지 테스트
+     */
+    @Test
+    void invalidItemsShouldFailWithoutAffectingOthers() {
+        List<ChargeBatchItem> items = List.of(new ChargeBatchItem(1L, 150), new ChargeBatchItem(2L, 500));
+
+        List<ChargeBatchResult> results = pointBatchService.chargeAll(items, item -> {
+            if (item.amount() % 100 != 0) {
+                throw new IllegalArgumentException("충전 금액은 100원 단위로 가능합니다.");
+            }
+        });
+
+        assertFalse(results.get(0).success());
+        assertEquals(0L, pointService.getUserPoint(1L).point());
+        assertTrue(results.get(1).success());
+        assertEquals(500L, results.get(1).userPoint().point());
+    }
+
+    /**
+     * 서로 다른 사용자는 병렬로 처리되어 전체 소요 시간이 사용자별 처리 시간의 합보다 훨씬 짧은지 테스트
+     */
+    @Test
+    void distinctUsersShouldBeChargedInParallel() {
+        List<ChargeBatchItem> items = new ArrayList<>();
+        for (long userId = 1; userId <= 32; userId++) {
+            items.add(new ChargeBatchItem(userId, 100));
+        }
+
+        long start = System.nanoTime();
+        List<ChargeBatchResult> results = pointBatchService.chargeAll(items, item -> { });
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("[검증] 32명 일괄 충전 소요 시간(ms): " + elapsedMillis);
+
+        assertTrue(results.stream().allMatch(ChargeBatchResult::success));
+        // 사용자당 조회/저장 최대 500ms, 16개 스레드로 나누면 두 번의 왕복 이내
+        assertTrue(elapsedMillis < 2000, "elapsed " + elapsedMillis);
+    }
+
+    /**
+     * 빈 요청이나 최대 항목 수를 넘는 요청은 거절되는지 테스트
+     */
+    @Test
+    void emptyOrOversizedBatchShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> pointBatchService.chargeAll(List.of(), item -> { }));
+
+        PointProperties properties = new PointProperties();
+        properties.getBatch().setMaxItems(1);
+        PointBatchService limited = new PointBatchService(pointService, executor, properties);
+        List<ChargeBatchItem> items = List.of(new ChargeBatchItem(1L, 100), new ChargeBatchItem(2L, 100));
+        assertThrows(IllegalArgumentException.class, () -> limited.chargeAll(items, item -> { }));
+    }
+}
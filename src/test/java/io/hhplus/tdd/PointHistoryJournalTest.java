@@ -0,0 +1,143 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryJournal;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PointHistoryJournal 의 write-behind 기록 동작을 검증하는 테스트 클래스
+ */
+class PointHistoryJournalTest {
+
+    private PointHistoryRepository pointHistoryRepository;
+    private PointHistoryJournal pointHistoryJournal;
+
+    @BeforeEach
+    void setUp() {
+        pointHistoryRepository = new PointHistoryRepository(new PointHistoryTable(), new SimpleMeterRegistry());
+        pointHistoryJournal = new PointHistoryJournal(pointHistoryRepository, 100, 2, 1000);
+    }
+
+    /**
+     * 아직 기록되지 않은 내역도 read-your-writes 조회에는 포함되는지 테스트
+     */
+    @Test
+    void pendingEntriesShouldBeVisibleBeforeTheyArePersisted() {
+        for (int i = 1; i <= 5; i++) {
+            pointHistoryJournal.append(1L, i * 100L, TransactionType.CHARGE, i);
+        }
+
+        List<PointHistory> result = pointHistoryJournal.withPending(1L, pointHistoryRepository::selectAllByUserId);
+        System.out.println("[검증] 조회된 내역: " + result);
+
+        assertEquals(List.of(100L, 200L, 300L, 400L, 500L), result.stream().map(PointHistory::amount).toList());
+        pointHistoryJournal.close();
+    }
+
+    /**
+     * close() 호출 시 대기 중인 내역이 모두 요청 순서대로 기록되는지 테스트
+     */
+    @Test
+    void closeShouldFlushPendingEntriesInOrder() {
+        for (int i = 1; i <= 5; i++) {
+            pointHistoryJournal.append(2L, i * 100L, TransactionType.USE, i);
+        }
+
+        pointHistoryJournal.close();
+        List<PointHistory> persisted = pointHistoryRepository.selectAllByUserId(2L);
+
+        assertEquals(0, pointHistoryJournal.pendingCount());
+        assertEquals(List.of(100L, 200L, 300L, 400L, 500L), persisted.stream().map(PointHistory::amount).toList());
+        assertThrows(IllegalStateException.class, () -> pointHistoryJournal.append(2L, 100L, TransactionType.USE, 6L));
+    }
+
+    /**
+     * 테이블에는 보였지만 insert 가 아직 반환되지 않은 내역이 중복으로 조회되지 않는지 테스트
+     */
+    @Test
+    void entryVisibleBeforeInsertReturnsShouldNotBeDuplicated() throws Exception {
+        CountDownLatch visible = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PointHistoryRepository slowReturning = new PointHistoryRepository(new PointHistoryTable(), new SimpleMeterRegistry()) {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                PointHistory inserted = super.insert(userId, amount, type, updateMillis);
+                visible.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return inserted;
+            }
+        };
+        PointHistoryJournal journal = new PointHistoryJournal(slowReturning, 100, 1, 1000);
+        journal.append(3L, 100L, TransactionType.CHARGE, 1L);
+        assertTrue(visible.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<List<PointHistory>> read = CompletableFuture.supplyAsync(() -> journal.withPending(3L, slowReturning::selectAllByUserId));
+        Thread.sleep(50);
+        release.countDown();
+        List<PointHistory> result = read.get(5, TimeUnit.SECONDS);
+        System.out.println("[검증] 조회된 내역: " + result);
+
+        assertEquals(1, result.size());
+        assertTrue(result.get(0).id() > 0);
+        journal.close();
+    }
+
+    /**
+     * close() 와 동시에 들어온 내역도 받아들여졌다면 모두 기록되는지 테스트
+     */
+    @Test
+    void appendRacingCloseShouldEitherBeRejectedOrPersisted() throws Exception {
+        int threadCount = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                int accepted = 0;
+                for (int j = 0; j < 1000; j++) {
+                    try {
+                        pointHistoryJournal.append(4L, 1L, TransactionType.CHARGE, j);
+                        accepted++;
+                    } catch (IllegalStateException e) {
+                        break;
+                    }
+                }
+                return accepted;
+            }));
+        }
+        start.countDown();
+        Thread.sleep(5);
+        pointHistoryJournal.close();
+
+        int accepted = 0;
+        for (Future<Integer> future : futures) {
+            accepted += future.get(10, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+        System.out.println("[검증] 받아들여진 내역 수: " + accepted);
+
+        assertEquals(accepted, pointHistoryRepository.selectAllByUserId(4L).size());
+        assertEquals(0, pointHistoryJournal.pendingCount());
+    }
+}
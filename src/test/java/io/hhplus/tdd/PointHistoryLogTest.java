@@ -0,0 +1,147 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryLog;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointSummary;
+import io.hhplus.tdd.point.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PointHistoryLog 의 세그먼트 전환, 재시작 후 재생, 저장소 연동을 검증하는 테스트 클래스
+ */
+class PointHistoryLogTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("point-history-log");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * 세그먼트 크기를 넘겨 기록해도 다시 열었을 때 모든 레코드가 기록 순서대로 재생되는지 테스트
+     */
+    @Test
+    void recordsShouldSurviveReopenAcrossSegments() throws IOException {
+        try (PointHistoryLog log = PointHistoryLog.open(directory, 3)) {
+            for (long id = 1; id <= 7; id++) {
+                log.append(id, id % 2, id * 100, id % 2 == 0 ? TransactionType.CHARGE : TransactionType.USE, 1000 + id);
+            }
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(3, files.count()); // 3 + 3 + 1 건
+        }
+
+        try (PointHistoryLog log = PointHistoryLog.open(directory, 3)) {
+            assertEquals(7, log.count());
+            assertEquals(7, log.lastId());
+
+            log.append(8, 0, 800, TransactionType.CHARGE, 1008);
+            List<PointHistory> replayed = new ArrayList<>();
+            log.replay((id, userId, amount, type, updateMillis) -> replayed.add(new PointHistory(id, userId, amount, type, updateMillis)));
+
+            assertEquals(8, replayed.size());
+            for (int i = 0; i < replayed.size(); i++) {
+                long id = i + 1;
+                assertEquals(new PointHistory(id, id % 2, id * 100, id % 2 == 0 ? TransactionType.CHARGE : TransactionType.USE, 1000 + id), replayed.get(i));
+            }
+        }
+    }
+
+    /**
+     * 앞 세그먼트가 지워져도 파일 이름의 번호로 마지막 세그먼트를 찾아, 기존 레코드를 덮어쓰지 않고 이어 쓰는지 테스트
+     */
+    @Test
+    void appendShouldResumeLastSegmentByFileNumber() throws IOException {
+        try (PointHistoryLog log = PointHistoryLog.open(directory, 3)) {
+            for (long id = 1; id <= 7; id++) {
+                log.append(id, 1, 100, TransactionType.CHARGE, id);
+            }
+        }
+        Files.delete(directory.resolve("segment-0000000000.log"));
+
+        try (PointHistoryLog log = PointHistoryLog.open(directory, 3)) {
+            log.append(8, 1, 100, TransactionType.CHARGE, 8);
+            List<Long> ids = new ArrayList<>();
+            log.replay((id, userId, amount, type, updateMillis) -> ids.add(id));
+            System.out.println("[검증] 재생된 id: " + ids);
+
+            assertEquals(List.of(4L, 5L, 6L, 7L, 8L), ids);
+        }
+    }
+
+    /**
+     * 세그먼트 크기 설정을 줄여 다시 열어도 마지막 세그먼트는 만들 때의 크기로 이어 쓰고, 새 세그먼트부터 새 크기를 쓰는지 테스트
+     */
+    @Test
+    void lastSegmentShouldKeepItsOwnSizeAfterConfigChange() throws IOException {
+        try (PointHistoryLog log = PointHistoryLog.open(directory, 4)) {
+            log.append(1, 1, 100, TransactionType.CHARGE, 1);
+            log.append(2, 1, 100, TransactionType.CHARGE, 2);
+        }
+
+        try (PointHistoryLog log = PointHistoryLog.open(directory, 1)) {
+            for (long id = 3; id <= 5; id++) {
+                log.append(id, 1, 100, TransactionType.CHARGE, id);
+            }
+            List<Long> ids = new ArrayList<>();
+            log.replay((id, userId, amount, type, updateMillis) -> ids.add(id));
+
+            assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids);
+            assertEquals(5, log.count());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count()); // 4 건 (기존 크기) + 1 건 (새 크기)
+        }
+    }
+
+    /**
+     * 재시작 후 새 테이블에서도 이전 내역과 요약이 조회되고, 새 내역의 id 가 이전 id 와 겹치지 않는지 테스트
+     */
+    @Test
+    void repositoryShouldReplayLogAfterRestart() {
+        try (PointHistoryLog log = PointHistoryLog.open(directory, 4)) {
+            PointHistoryRepository repository = new PointHistoryRepository(new PointHistoryTable(), new SimpleMeterRegistry(), log);
+            repository.insert(1L, 1000, TransactionType.CHARGE, 1L);
+            repository.insert(2L, 2000, TransactionType.CHARGE, 2L);
+            repository.insert(1L, 500, TransactionType.USE, 3L);
+        }
+
+        try (PointHistoryLog log = PointHistoryLog.open(directory, 4)) {
+            PointHistoryRepository repository = new PointHistoryRepository(new PointHistoryTable(), new SimpleMeterRegistry(), log);
+            PointHistory inserted = repository.insert(1L, 300, TransactionType.CHARGE, 4L);
+
+            assertEquals(4L, inserted.id()); // 새 테이블의 id 1 + 로그의 마지막 id 3
+            assertEquals(List.of(1L, 3L, 4L), repository.selectAllByUserId(1L).stream().map(PointHistory::id).toList());
+            assertEquals(List.of(2L), repository.selectAllByUserId(2L).stream().map(PointHistory::id).toList());
+            assertEquals(4, log.count());
+            // 재생한 내역과 새 내역이 모두 요약에 반영
+            assertEquals(new PointSummary.Total(2, 1300L), repository.summaryOf(1L).totals().get(TransactionType.CHARGE));
+            assertEquals(new PointSummary.Total(1, 500L), repository.summaryOf(1L).totals().get(TransactionType.USE));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointSummary;
+import io.hhplus.tdd.point.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PointHistoryRepository 의 사용자별 인덱스 동작을 검증하는 테스트 클래스
+ */
+class PointHistoryRepositoryTest {
+
+    private PointHistoryTable pointHistoryTable;
+    private PointHistoryRepository pointHistoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        pointHistoryTable = new PointHistoryTable();
+        pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, new SimpleMeterRegistry());
+    }
+
+    /**
+     * 사용자별 내역만 기록 순서대로 반환하는지 테스트
+     */
+    @Test
+    void selectAllByUserIdShouldReturnOnlyThatUsersRowsInOrder() {
+        pointHistoryRepository.insert(1L, 1000L, TransactionType.CHARGE, 1L);
+        pointHistoryRepository.insert(2L, 500L, TransactionType.CHARGE, 2L);
+        pointHistoryRepository.insert(1L, 300L, TransactionType.USE, 3L);
+
+        List<PointHistory> result = pointHistoryRepository.selectAllByUserId(1L);
+        System.out.println("[검증] 사용자 1 내역: " + result);
+
+        assertEquals(2, result.size());
+        assertEquals(1000L, result.get(0).amount());
+        assertEquals(300L, result.get(1).amount());
+        assertEquals(pointHistoryTable.selectAllByUserId(1L), result); // 테이블 전체 스캔 결과와 같아야 함
+    }
+
+    /**
+     * 내역이 없는 사용자를 반복 조회하거나 처음 기록해도 테이블 전체 스캔은 첫 조회 한 번뿐인지 테스트
+     */
+    @Test
+    void historyLessUsersShouldBeScannedOnlyOnce() {
+        AtomicInteger scans = new AtomicInteger();
+        PointHistoryTable countingTable = new PointHistoryTable() {
+            @Override
+            public List<PointHistory> selectAllByUserId(long userId) {
+                scans.incrementAndGet();
+                return super.selectAllByUserId(userId);
+            }
+        };
+        PointHistoryRepository repository = new PointHistoryRepository(countingTable, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(List.of(), repository.selectAllByUserId(9L));
+            assertEquals(0L, repository.summaryOf(9L).totals().get(TransactionType.CHARGE).count());
+            assertEquals(List.of(), repository.selectByUserIdBetween(9L, 0, Long.MAX_VALUE, false, 10));
+        }
+        assertEquals(1, scans.get()); // 빈 결과도 인덱스에 남아 다시 스캔하지 않음
+
+        repository.insert(10L, 700L, TransactionType.CHARGE, 1L);
+        assertEquals(1, scans.get()); // 처음 기록하는 사용자도 스캔하지 않음
+        assertEquals(1, repository.selectAllByUserId(10L).size());
+        assertEquals(1, repository.selectAllByUserId(10L).size());
+        System.out.println("[검증] 테이블 스캔 횟수: " + scans.get());
+
+        assertEquals(2, scans.get()); // 기록만 된 사용자는 첫 조회에서 한 번 읽어 합침
+    }
+
+    /**
+     * 저장소를 거치지 않고 테이블에 먼저 기록된 내역도 처음 접근 시 인덱스에 적재되는지 테스트
+     */
+    @Test
+    void existingTableRowsShouldBeLoadedOnFirstAccess() {
+        pointHistoryTable.insert(3L, 2000L, TransactionType.CHARGE, 1L);
+
+        pointHistoryRepository.insert(3L, 1000L, TransactionType.USE, 2L);
+        List<PointHistory> result = pointHistoryRepository.selectAllByUserId(3L);
+
+        assertEquals(2, result.size()); // 기존 내역 + 새 내역, 중복 없이
+        assertEquals(TransactionType.CHARGE, result.get(0).type());
+        assertEquals(TransactionType.USE, result.get(1).type());
+    }
+
+    /**
+     * 커서(afterId) 이후의 내역을 limit 건씩 이어서 조회할 수 있는지 테스트
+     */
+    @Test
+    void selectByUserIdShouldPageWithCursor() {
+        for (int i = 1; i <= 5; i++) {
+            pointHistoryRepository.insert(4L, i * 100L, TransactionType.CHARGE, i);
+        }
+
+        List<PointHistory> first = pointHistoryRepository.selectByUserId(4L, 0L, 2);
+        List<PointHistory> second = pointHistoryRepository.selectByUserId(4L, first.get(1).id(), 2);
+        List<PointHistory> last = pointHistoryRepository.selectByUserId(4L, second.get(1).id(), 2);
+
+        assertEquals(List.of(100L, 200L), first.stream().map(PointHistory::amount).toList());
+        assertEquals(List.of(300L, 400L), second.stream().map(PointHistory::amount).toList());
+        assertEquals(List.of(500L), last.stream().map(PointHistory::amount).toList());
+        assertTrue(pointHistoryRepository.selectByUserId(4L, last.get(0).id(), 2).isEmpty());
+    }
+
+    /**
+     * 요약이 테이블에 먼저 있던 내역과 저장소로 기록된 내역을 모두 포함하고, 다시 계산해도 같은 값인지 테스트
+     * (PointHistoryTable 은 동시 삽입에 안전하지 않으므로 차례로 기록)
+     */
+    @Test
+    void summaryShouldTrackTotalsPerTransactionType() {
+        pointHistoryTable.insert(5L, 2000L, TransactionType.CHARGE, 1L);
+        for (int i = 0; i < 40; i++) {
+            TransactionType type = i % 4 == 0 ? TransactionType.USE : TransactionType.CHARGE;
+            pointHistoryRepository.insert(5L, 10L, type, 2L);
+        }
+
+        PointSummary summary = pointHistoryRepository.summaryOf(5L);
+        System.out.println("[검증] 사용자 5 요약: " + summary);
+
+        assertEquals(new PointSummary.Total(31, 2300L), summary.totals().get(TransactionType.CHARGE));
+        assertEquals(new PointSummary.Total(10, 100L), summary.totals().get(TransactionType.USE));
+        pointHistoryRepository.rebuildSummaries();
+        assertEquals(summary, pointHistoryRepository.summaryOf(5L));
+        // 내역이 없는 사용자는 0 으로 채워진 요약
+        assertEquals(new PointSummary.Total(0, 0), pointHistoryRepository.summaryOf(6L).totals().get(TransactionType.USE));
+    }
+
+    /**
+     * 수정 시각이 id 순서와 다르게 기록되어도 시각 범위 조회가 시각 순서로 반환하고, 내림차순/limit 이 적용되는지 테스트
+     */
+    @Test
+    void selectByUserIdBetweenShouldUseTimeOrder() {
+        long[] millis = {500L, 100L, 300L, 200L, 400L, 300L};
+        for (long updateMillis : millis) {
+            pointHistoryRepository.insert(7L, updateMillis, TransactionType.CHARGE, updateMillis);
+        }
+
+        List<PointHistory> range = pointHistoryRepository.selectByUserIdBetween(7L, 200L, 400L, false, 100);
+        List<PointHistory> latest = pointHistoryRepository.selectByUserIdBetween(7L, 0L, Long.MAX_VALUE, true, 2);
+        List<PointHistory> earliest = pointHistoryRepository.selectByUserIdBetween(7L, 0L, Long.MAX_VALUE, false, 2);
+
+        // from 은 포함, to 는 미포함이며 같은 시각은 id 순서
+        assertEquals(List.of(200L, 300L, 300L), range.stream().map(PointHistory::updateMillis).toList());
+        assertTrue(range.get(1).id() < range.get(2).id());
+        assertEquals(List.of(500L, 400L), latest.stream().map(PointHistory::updateMillis).toList());
+        assertEquals(List.of(100L, 200L), earliest.stream().map(PointHistory::updateMillis).toList());
+        assertTrue(pointHistoryRepository.selectByUserIdBetween(7L, 600L, 700L, true, 10).isEmpty());
+        // id 순서 조회는 그대로
+        assertEquals(List.of(500L, 100L, 300L, 200L, 400L, 300L),
+                pointHistoryRepository.selectAllByUserId(7L).stream().map(PointHistory::updateMillis).toList());
+    }
+}
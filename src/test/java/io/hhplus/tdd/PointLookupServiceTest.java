@@ -0,0 +1,97 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.PointLookupService;
+import io.hhplus.tdd.point.PointProperties;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.UserPointLookupResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 다중 사용자 잔고 조회가 동시에 실행되고, 마감 시간을 넘긴 사용자만 부분 결과로 반환되는지 검증하는 테스트 클래스
+ */
+class PointLookupServiceTest {
+
+    // 느린 사용자 ID (조회에 1초 소요)
+    private static final long SLOW_USER_ID = 99L;
+
+    private ExecutorService executor;
+    private PointProperties properties;
+    private PointLookupService pointLookupService;
+
+    @BeforeEach
+    void setUp() {
+        UserPointTable userPointTable = new UserPointTable() {
+            @Override
+            public UserPoint selectById(Long id) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(id == SLOW_USER_ID ? 1000 : 50);
+                } catch (InterruptedException ignored) {
+                }
+                return UserPoint.empty(id);
+            }
+        };
+        PointService pointService = new PointService(userPointTable, new PointHistoryTable());
+        executor = Executors.newFixedThreadPool(8);
+        properties = new PointProperties();
+        properties.getLookup().setDeadlineMillis(300);
+        pointLookupService = new PointLookupService(pointService, executor, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 사용자별 조회가 동시에 실행되어 전체 소요 시간이 조회 시간의 합보다 짧고, 중복 ID 는 한 번만 반환되는지 테스트
+     */
+    @Test
+    void lookupShouldFanOutAndKeepRequestOrder() {
+        long start = System.nanoTime();
+        UserPointLookupResult result = pointLookupService.getUserPoints(List.of(3L, 1L, 2L, 1L, 4L, 5L, 6L, 7L, 8L));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("[검증] 8명 잔고 조회 소요 시간(ms): " + elapsedMillis);
+
+        assertFalse(result.partial());
+        assertEquals(List.of(3L, 1L, 2L, 4L, 5L, 6L, 7L, 8L), result.points().stream().map(UserPoint::id).toList());
+        assertTrue(elapsedMillis < 8 * 50, "elapsed " + elapsedMillis);
+    }
+
+    /**
+     * 마감 시간을 넘긴 사용자만 timedOut 으로 반환되고 나머지는 정상 반환되는지 테스트
+     */
+    @Test
+    void slowUsersShouldBeReturnedAsTimedOut() {
+        long start = System.nanoTime();
+        UserPointLookupResult result = pointLookupService.getUserPoints(List.of(1L, SLOW_USER_ID, 2L));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(result.partial());
+        assertEquals(List.of(1L, 2L), result.points().stream().map(UserPoint::id).toList());
+        assertEquals(List.of(SLOW_USER_ID), result.timedOut());
+        assertTrue(elapsedMillis < 1000, "elapsed " + elapsedMillis); // 느린 사용자를 기다리지 않았는지 확인
+    }
+
+    /**
+     * 빈 요청이나 최대 사용자 수를 넘는 요청은 거절되는지 테스트
+     */
+    @Test
+    void emptyOrOversizedLookupShouldBeRejected() {
+        properties.getLookup().setMaxIds(2);
+
+        assertThrows(IllegalArgumentException.class, () -> pointLookupService.getUserPoints(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> pointLookupService.getUserPoints(List.of(1L, 2L, 3L)));
+    }
+}
@@ -0,0 +1,62 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.PointProperties;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PointService 가 테이블 호출, 락 대기/보유 시간, 거절 사유별 지표를 기록하는지 검증하는 테스트 클래스
+ */
+class PointMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private PointService pointService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        pointService = new PointService(new UserPointTable(), new PointHistoryTable(), new PointProperties(), registry);
+    }
+
+    /**
+     * 충전/내역 기록 시 테이블 연산별 호출 시간과 락 대기/보유 시간이 기록되는지 테스트
+     */
+    @Test
+    void testTableCallsAndLockTimesAreRecorded() {
+        pointService.charge(1L, 1000L);
+        pointService.updateHistory(1L, 1000L, TransactionType.CHARGE);
+        pointService.getPointHistory(1L);
+
+        assertEquals(1, registry.get("point.table.calls").tag("table", "user_point").tag("operation", "selectById").timer().count());
+        assertEquals(1, registry.get("point.table.calls").tag("table", "user_point").tag("operation", "insertOrUpdate").timer().count());
+        assertEquals(1, registry.get("point.table.calls").tag("table", "point_history").tag("operation", "insert").timer().count());
+        assertEquals(1, registry.get("point.table.calls").tag("table", "point_history").tag("operation", "selectAllByUserId").timer().count());
+        assertEquals(1, registry.get("point.lock.wait").tag("method", "charge").timer().count());
+        assertEquals(1, registry.get("point.lock.hold").tag("method", "charge").timer().count());
+        assertEquals(0.0, registry.get("point.requests.in_flight").gauge().value());
+    }
+
+    /**
+     * 거절된 요청이 사유별로 집계되는지 테스트
+     */
+    @Test
+    void testRejectionsAreCountedByReason() {
+        pointService.charge(1L, 9000L);
+
+        assertThrows(IllegalArgumentException.class, () -> pointService.charge(1L, 2000L));
+        assertThrows(IllegalArgumentException.class, () -> pointService.use(1L, 10000L));
+        assertThrows(IllegalArgumentException.class, () -> pointService.charge(1L, -1L));
+
+        assertEquals(1.0, registry.get("point.rejections").tag("reason", "max_balance").counter().count());
+        assertEquals(1.0, registry.get("point.rejections").tag("reason", "insufficient_balance").counter().count());
+        assertEquals(1.0, registry.get("point.rejections").tag("reason", "invalid_amount").counter().count());
+        assertEquals(0.0, registry.get("point.rejections").tag("reason", "unknown_user").counter().count());
+    }
+}
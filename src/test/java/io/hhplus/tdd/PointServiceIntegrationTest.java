@@ -2,7 +2,9 @@ package io.hhplus.tdd;
 
 import io.hhplus.tdd.database.PointHistoryTable;
 import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.PointHistory;
 import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.TransactionType;
 import io.hhplus.tdd.point.UserPoint;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,8 +12,10 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -19,14 +23,19 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class PointServiceIntegrationTest {
 
-    private PointService pointService;
+    protected PointService pointService;
 
     @BeforeEach
     void setUp() {
         // 테스트 실행 전에 PointService 초기화
         UserPointTable userPointTable = new UserPointTable();
         PointHistoryTable pointHistoryTable = new PointHistoryTable();
-        pointService = new PointService(userPointTable, pointHistoryTable);
+        pointService = createPointService(userPointTable, pointHistoryTable);
+    }
+
+    // 다른 잔고 엔진으로 같은 테스트를 실행할 수 있도록 하위 클래스에서 재정의
+    protected PointService createPointService(UserPointTable userPointTable, PointHistoryTable pointHistoryTable) {
+        return new PointService(userPointTable, pointHistoryTable);
     }
 
     // 포인트 충전 시 정상 동작 여부 확인
@@ -627,4 +636,149 @@ class PointServiceIntegrationTest {
         System.out.println("--- ✅ 테스트 종료: testConcurrentRollbackWithOtherSuccesses ---");
     }
 
+    // 동시 요청이 한 번의 조회/저장으로 묶여 처리되어도 호출자마다 자신의 결과를 받는지 확인
+    @Test
+    @DisplayName("요청 묶음 처리 시 호출자별 결과 반환 검증")
+    void testCombinedChargesReturnOwnResult() throws InterruptedException {
+        long userId = 60L;
+        int chargeAmount = 1000;
+        int threadCount = 10;
+
+        System.out.println("🚀[테스트 시작] testCombinedChargesReturnOwnResult");
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<UserPoint>> futures = new ArrayList<>();
+
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+                return pointService.charge(userId, chargeAmount);
+            }));
+        }
+        startLatch.countDown();
+
+        // 각 호출자는 자신의 충전이 반영된 시점의 잔고를 받아야 하므로 결과 잔고는 모두 달라야 함
+        Set<Long> balances = new HashSet<>();
+        for (Future<UserPoint> f : futures) {
+            try {
+                balances.add(f.get().point());
+            } catch (ExecutionException e) {
+                fail("충전 요청이 실패했습니다: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+        executor.shutdown();
+        System.out.println("🚀[테스트 종료] testCombinedChargesReturnOwnResult - 반환된 잔고: " + balances);
+
+        assertEquals(threadCount, balances.size(), "호출자별 결과 잔고가 중복되었습니다.");
+        for (long i = 1; i <= threadCount; i++) {
+            assertTrue(balances.contains(i * chargeAmount), "잔고 " + (i * chargeAmount) + " 결과가 누락되었습니다.");
+        }
+        assertEquals((long) chargeAmount * threadCount, pointService.getUserPoint(userId).point(), "최종 잔고가 예상과 다릅니다.");
+    }
+
+
+    // 충전/사용과 내역 기록을 한 번에 처리하면 저장된 잔고를 반환하고 내역도 남는지 확인
+    @Test
+    @DisplayName("충전/사용 및 내역 기록 단일 처리 검증")
+    void testChargeAndUseAreRecorded() {
+        long userId = 70L;
+
+        UserPoint charged = pointService.chargeAndRecord(userId, 3000);
+        long start = System.nanoTime();
+        UserPoint used = pointService.useAndRecord(userId, 1000);
+        System.out.println("🚀[로그] useAndRecord 소요 시간(ms): " + (System.nanoTime() - start) / 1_000_000);
+
+        assertEquals(3000L, charged.point());
+        assertEquals(2000L, used.point());
+        assertEquals(2000L, pointService.getUserPoint(userId).point());
+        List<PointHistory> histories = pointService.getPointHistory(userId);
+        assertEquals(List.of(TransactionType.CHARGE, TransactionType.USE), histories.stream().map(PointHistory::type).toList());
+        assertEquals(List.of(3000L, 1000L), histories.stream().map(PointHistory::amount).toList());
+
+        // 검증에 실패한 요청은 잔고와 내역 모두에 남지 않아야 함
+        assertThrows(IllegalArgumentException.class, () -> pointService.useAndRecord(userId, 5000));
+        assertEquals(2000L, pointService.getUserPoint(userId).point());
+        assertEquals(2, pointService.getPointHistory(userId).size());
+    }
+
+    // 내역 기록이 실패하면 잔고가 이전 값으로 되돌아가는지 확인
+    @Test
+    @DisplayName("내역 기록 실패 시 잔고 보상 처리 검증")
+    void testBalanceIsCompensatedWhenHistoryFails() {
+        long userId = 71L;
+        PointHistoryTable failingHistoryTable = new PointHistoryTable() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                if (type == TransactionType.USE) {
+                    throw new IllegalStateException("내역 기록 실패");
+                }
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        };
+        PointService service = createPointService(new UserPointTable(), failingHistoryTable);
+
+        service.chargeAndRecord(userId, 3000);
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> service.useAndRecord(userId, 1000));
+
+        assertEquals("내역 기록 실패", e.getMessage());
+        assertEquals(3000L, service.getUserPoint(userId).point(), "내역 기록 실패 후 잔고가 되돌려지지 않았습니다.");
+        assertEquals(1, service.getPointHistory(userId).size());
+    }
+
+    // 여러 요청이 함께 처리되는 중 일부 내역 기록이 실패해도, 보상 처리가 잔고 한도를 벗어나지 않고 성공한 요청만 잔고에 남는지 확인
+    @Test
+    @DisplayName("동시 충전/사용 중 내역 기록 실패 시 보상 처리 검증")
+    void testConcurrentCompensationKeepsBalanceConsistent() throws InterruptedException {
+        long userId = 72L;
+        AtomicInteger chargeInserts = new AtomicInteger();
+        PointHistoryTable failingHistoryTable = new PointHistoryTable() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                // 충전 내역 4건 중 1건은 기록 실패
+                if (type == TransactionType.CHARGE && chargeInserts.incrementAndGet() % 4 == 0) {
+                    throw new IllegalStateException("내역 기록 실패");
+                }
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        };
+        PointService service = createPointService(new UserPointTable(), failingHistoryTable);
+
+        int threadCount = 40;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<UserPoint>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            boolean charge = i % 2 == 0;
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+                return charge ? service.chargeAndRecord(userId, 100) : service.useAndRecord(userId, 100);
+            }));
+        }
+        startLatch.countDown();
+
+        long expected = 0;
+        int succeeded = 0;
+        int uncompensated = 0;
+        for (int i = 0; i < threadCount; i++) {
+            try {
+                futures.get(i).get();
+                expected += i % 2 == 0 ? 100 : -100;
+                succeeded++;
+            } catch (ExecutionException e) {
+                // 되돌리지 못한 요청은 보상 실패 예외가 덧붙어 전달되며 잔고에는 남아 있음
+                if (e.getCause().getSuppressed().length > 0) {
+                    expected += i % 2 == 0 ? 100 : -100;
+                    uncompensated++;
+                }
+            }
+        }
+        executor.shutdown();
+        long balance = service.getUserPoint(userId).point();
+        System.out.println("[검증] 성공: " + succeeded + ", 되돌리지 못함: " + uncompensated + ", 잔고: " + balance);
+
+        assertTrue(balance >= 0 && balance <= 10000, "보상 처리 후 잔고가 한도를 벗어났습니다: " + balance);
+        assertEquals(expected, balance, "성공한 요청(과 되돌리지 못한 요청)만 잔고에 반영되어야 합니다.");
+        assertTrue(service.getPointHistory(userId).size() >= succeeded, "성공한 요청의 내역이 누락되었습니다.");
+    }
+
 }
@@ -0,0 +1,169 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointCache;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.PointProperties;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.ShardedBalanceEngine;
+import io.hhplus.tdd.point.UserPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * sharded 잔고 엔진으로 PointServiceIntegrationTest 의 모든 테스트를 다시 실행하고,
+ * 같은 사용자의 동시 요청이 샤드에서 묶음으로 처리되는지 검증하는 테스트 클래스
+ */
+class ShardedBalanceEngineIntegrationTest extends PointServiceIntegrationTest {
+
+    private UserPointTable userPointTable;
+    private SimpleMeterRegistry registry;
+
+    @Override
+    protected PointService createPointService(UserPointTable userPointTable, PointHistoryTable pointHistoryTable) {
+        this.userPointTable = userPointTable;
+        this.registry = new SimpleMeterRegistry();
+        PointProperties properties = new PointProperties();
+        properties.getEngine().setType(PointProperties.Engine.Type.SHARDED);
+        properties.getEngine().setShards(4);
+        return new PointService(userPointTable, pointHistoryTable, properties, registry);
+    }
+
+    /**
+     * 같은 사용자에게 동시에 들어온 요청이 테이블 저장 한 번에 여러 건씩 묶여 처리되고, 대기열 지표가 샤드별로 등록되는지 테스트
+     */
+    @Test
+    void testConcurrentRequestsAreBatchedPerShard() throws InterruptedException {
+        long userId = 1L;
+        pointService.charge(userId, 5000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(20);
+        for (int i = 0; i < 100; i++) {
+            boolean charge = i % 2 == 0;
+            executor.submit(() -> {
+                if (charge) {
+                    pointService.charge(userId, 100);
+                } else {
+                    pointService.use(userId, 100);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        ShardedBalanceEngine.Stats stats = pointService.getShardStats();
+        System.out.println("[검증] 샤드 통계: " + stats);
+
+        assertEquals(5000L, pointService.getUserPoint(userId).point());
+        assertEquals(5000L, userPointTable.selectById(userId).point()); // 응답 전에 테이블에 저장되었는지 확인
+        assertTrue(stats.batches() < stats.commands()); // 여러 요청이 한 묶음으로 처리되었는지 확인
+        assertEquals(0, stats.queued());
+        for (int shard = 0; shard < 4; shard++) {
+            assertEquals(0.0, registry.get("point.shard.queue.depth").tag("shard", String.valueOf(shard)).gauge().value());
+        }
+    }
+
+    /**
+     * 종료와 동시에 들어온 요청도 처리되거나 실패로 완료되어, 끝나지 않는 요청이 없는지 테스트
+     */
+    @Test
+    void testRequestsRacingCloseAreAlwaysCompleted() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ShardedBalanceEngine engine = new ShardedBalanceEngine(new UserPointCache(new UserPointTable(), 100, meterRegistry),
+                new PointMetrics(meterRegistry), 1_000_000L, 4, 100_000, meterRegistry);
+        ConcurrentLinkedQueue<CompletableFuture<UserPoint>> futures = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch started = new CountDownLatch(8);
+        for (int i = 0; i < 8; i++) {
+            long userId = i + 1;
+            executor.submit(() -> {
+                started.countDown();
+                for (int j = 0; j < 2000; j++) {
+                    futures.add(engine.charge(userId, 1));
+                }
+            });
+        }
+        started.await();
+        engine.close();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        List<CompletableFuture<UserPoint>> pending = new ArrayList<>();
+        for (CompletableFuture<UserPoint> future : futures) {
+            if (!future.isDone()) {
+                pending.add(future);
+            }
+        }
+        System.out.println("[검증] 요청 수: " + futures.size() + ", 끝나지 않은 요청 수: " + pending.size());
+
+        assertEquals(0, pending.size());
+    }
+
+    /**
+     * 샤드의 잔고 맵이 상한을 넘으면 사용자를 내보내고, 내보낸 사용자도 테이블에서 다시 읽어 잔고를 이어가는지 테스트
+     */
+    @Test
+    void testBalancesAreEvictedAboveMaxUsers() throws InterruptedException {
+        // 사용자를 자주 내보내도록 느린 대기 없이 바로 응답하는 테이블 사용
+        UserPointTable fastTable = new UserPointTable() {
+            private final Map<Long, UserPoint> table = new ConcurrentHashMap<>();
+
+            @Override
+            public UserPoint selectById(Long id) {
+                return table.getOrDefault(id, UserPoint.empty(id));
+            }
+
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+                table.put(id, userPoint);
+                return userPoint;
+            }
+        };
+        PointProperties properties = new PointProperties();
+        properties.getEngine().setType(PointProperties.Engine.Type.SHARDED);
+        properties.getEngine().setShards(2);
+        properties.getEngine().setMaxUsers(8);
+        PointService service = new PointService(fastTable, new PointHistoryTable(), properties, new SimpleMeterRegistry());
+
+        int userCount = 40;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int round = 0; round < 5; round++) {
+            for (long userId = 1; userId <= userCount; userId++) {
+                long id = userId;
+                executor.submit(() -> service.charge(id, 100));
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        // 요청은 묶음 처리 중에 완료되고 내보내기는 그 뒤에 하므로, 마지막 묶음의 처리 수가 집계될 때까지 대기
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (service.getShardStats().commands() < userCount * 5L && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        ShardedBalanceEngine.Stats stats = service.getShardStats();
+        System.out.println("[검증] 샤드 통계: " + stats);
+
+        assertTrue(stats.evictions() > 0); // 상한을 넘어 사용자를 내보냈는지 확인
+        assertTrue(stats.users() <= 8); // 샤드마다 상한(8 / 2) 이하로 유지되는지 확인
+        for (long userId = 1; userId <= userCount; userId++) {
+            assertEquals(500L, service.getUserPoint(userId).point()); // 내보낸 뒤 다시 읽어도 충전이 빠지지 않았는지 확인
+            assertEquals(500L, fastTable.selectById(userId).point());
+        }
+        service.close();
+    }
+}
@@ -0,0 +1,71 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.StripedLock;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StripedLock 의 스트라이프 선택과 대기 통계를 검증하는 테스트 클래스
+ */
+class StripedLockTest {
+
+    /**
+     * 스트라이프 수가 2의 거듭제곱이 아니면 생성할 수 없는지 테스트
+     */
+    @Test
+    void stripeCountMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedLock<>(100, false, Object::new));
+        assertEquals(128, new StripedLock<>(128, false, Object::new).stripeCount());
+    }
+
+    /**
+     * 사용자 수가 스트라이프 수보다 많아도 락 객체는 스트라이프 수만큼만 존재하는지 테스트
+     */
+    @Test
+    void usersShouldShareAFixedNumberOfStripes() {
+        StripedLock<Object> lock = new StripedLock<>(16, false, Object::new);
+        Set<StripedLock.Stripe<Object>> used = new HashSet<>();
+        for (long userId = 0; userId < 100_000; userId++) {
+            used.add(lock.stripeOf(userId));
+        }
+
+        assertEquals(16, used.size()); // 모든 스트라이프가 고르게 사용되어야 함
+        assertSame(lock.stripeOf(42L), lock.stripeOf(42L)); // 같은 사용자는 항상 같은 스트라이프
+    }
+
+    /**
+     * 다른 스레드가 락을 잡고 있을 때의 대기 시간이 통계에 기록되는지 테스트
+     */
+    @Test
+    void contendedAcquisitionShouldRecordWaitTime() throws InterruptedException {
+        StripedLock<AtomicInteger> lock = new StripedLock<>(4, true, AtomicInteger::new);
+        StripedLock.Stripe<AtomicInteger> stripe = lock.stripeOf(1L);
+        CountDownLatch started = new CountDownLatch(1);
+
+        stripe.lock();
+        Thread waiter = new Thread(() -> {
+            started.countDown();
+            stripe.lock();
+            stripe.state().incrementAndGet();
+            stripe.unlock();
+        });
+        waiter.start();
+        started.await();
+        Thread.sleep(50);
+        stripe.unlock();
+        waiter.join();
+
+        StripedLock.Stats stats = lock.stats();
+        System.out.println("[검증] 락 통계: " + stats);
+        assertEquals(2, stats.acquisitions());
+        assertEquals(1, stats.contended());
+        assertTrue(stats.maxWaitNanos() > 0);
+        assertEquals(1, stripe.state().get());
+    }
+}
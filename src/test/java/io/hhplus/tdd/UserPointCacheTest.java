@@ -0,0 +1,172 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PrimitiveUserPointStore;
+import io.hhplus.tdd.database.UserPointCache;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.UserPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UserPointCache 의 read-through / write-through 및 용량 제한 동작을 검증하는 테스트 클래스
+ */
+class UserPointCacheTest {
+
+    private UserPointTable userPointTable;
+    private UserPointCache userPointCache;
+
+    @BeforeEach
+    void setUp() {
+        userPointTable = new UserPointTable();
+        userPointCache = new UserPointCache(userPointTable, 3, new SimpleMeterRegistry());
+    }
+
+    /**
+     * 저장한 잔고는 테이블을 다시 조회하지 않고 캐시에서 반환되는지 테스트
+     */
+    @Test
+    void writeThroughShouldServeLatestBalanceFromCache() {
+        userPointCache.insertOrUpdate(1L, 1000L);
+        userPointCache.insertOrUpdate(1L, 2500L);
+
+        UserPoint result = userPointCache.selectById(1L);
+        System.out.println("[검증] 캐시 통계: " + userPointCache.stats());
+
+        assertEquals(2500L, result.point()); // 가장 최근에 저장한 잔고인지 확인
+        assertEquals(2500L, userPointTable.selectById(1L).point()); // 테이블에도 기록되었는지 확인
+        assertEquals(1L, userPointCache.stats().hits());
+        assertEquals(0L, userPointCache.stats().misses());
+    }
+
+    /**
+     * 캐시에 없는 사용자는 테이블에서 읽어 채우는지 테스트
+     */
+    @Test
+    void readThroughShouldPopulateOnMiss() {
+        userPointTable.insertOrUpdate(2L, 700L);
+
+        assertEquals(700L, userPointCache.selectById(2L).point()); // 첫 조회는 테이블에서 읽음
+        assertEquals(700L, userPointCache.selectById(2L).point()); // 두 번째 조회는 캐시에서 읽음
+
+        assertEquals(1L, userPointCache.stats().misses());
+        assertEquals(1L, userPointCache.stats().hits());
+    }
+
+    /**
+     * 최대 크기를 넘으면 항목을 제거하고, 자주 조회된 사용자는 남겨두는지 테스트
+     */
+    @Test
+    void evictionShouldKeepSizeBoundedAndPreferFrequentUsers() {
+        userPointCache.insertOrUpdate(1L, 100L);
+        for (int i = 0; i < 10; i++) {
+            userPointCache.selectById(1L); // 사용자 1을 자주 조회
+        }
+        userPointCache.insertOrUpdate(2L, 200L);
+        userPointCache.insertOrUpdate(3L, 300L);
+        userPointCache.insertOrUpdate(4L, 400L);
+        userPointCache.insertOrUpdate(5L, 500L);
+
+        UserPointCache.Stats stats = userPointCache.stats();
+        System.out.println("[검증] 캐시 통계: " + stats);
+
+        assertTrue(stats.size() <= 3, "캐시 크기가 최대 크기를 넘었습니다.");
+        assertEquals(2L, stats.evictions());
+        long hitsBefore = stats.hits();
+        assertEquals(100L, userPointCache.selectById(1L).point());
+        assertEquals(hitsBefore + 1, userPointCache.stats().hits(), "자주 조회된 사용자가 제거되었습니다.");
+    }
+
+    /**
+     * 자주 조회되는 사용자가 해시 테이블의 앞쪽 버킷에 몰려 있어도 제거 표본이 테이블 전체를 돌아 그 사용자들을 남겨두는지 테스트
+     */
+    @Test
+    void evictionShouldSampleWholeTableWhenHotUsersSitInFirstBuckets() {
+        UserPointCache cache = new UserPointCache(fastTable(), 1000, new SimpleMeterRegistry());
+        for (long id = 0; id < 100; id++) {
+            cache.insertOrUpdate(id, id); // 작은 ID 는 앞쪽 버킷에 위치
+        }
+        for (int i = 0; i < 20_000; i++) {
+            cache.insertOrUpdate(10_000L + i, i);
+            for (int j = 0; j < 5; j++) {
+                cache.selectById((i * 5L + j) % 100); // 사용자 0~99 를 계속 조회
+            }
+        }
+
+        long hitsBefore = cache.stats().hits();
+        for (long id = 0; id < 100; id++) {
+            cache.selectById(id);
+        }
+        long retained = cache.stats().hits() - hitsBefore;
+        System.out.println("[검증] 남아 있는 인기 사용자 수: " + retained + ", 캐시 통계: " + cache.stats());
+
+        assertTrue(cache.stats().size() <= 1000, "캐시 크기가 최대 크기를 넘었습니다.");
+        assertTrue(retained >= 90, "앞쪽 버킷의 인기 사용자가 제거되었습니다: " + retained);
+    }
+
+    /**
+     * 박싱 없는 저장소 앞에서 캐시를 끄면 잔고 조회/저장에 맵 항목이나 박싱된 키를 할당하지 않는지 테스트
+     * (스레드별 할당 바이트로 측정하며, 비교를 위해 박싱 캐시의 조회당 할당량도 출력)
+     */
+    @Test
+    void primitiveStoreShouldBypassBoxedCacheWithoutAllocating() {
+        UserPointTable fastTable = fastTable();
+        UserPointCache bypass = new UserPointCache(new PrimitiveUserPointStore(fastTable, 1024), 0, new SimpleMeterRegistry());
+        UserPointCache boxed = new UserPointCache(fastTable, 2048, new SimpleMeterRegistry());
+        for (long id = 1000; id < 2024; id++) {
+            bypass.insertOrUpdate(id, id);
+            boxed.selectById(id);
+        }
+
+        double bypassBytes = allocatedBytesPerRead(bypass);
+        double boxedBytes = allocatedBytesPerRead(boxed);
+        System.out.println("[검증] 조회당 할당량(bytes): 박싱 없는 저장소 " + bypassBytes + ", 박싱 캐시 " + boxedBytes);
+
+        assertEquals(0, bypass.stats().size()); // 캐시 맵을 거치지 않음
+        assertEquals(1500L, bypass.selectPointById(1500L, -1));
+        assertTrue(bypassBytes < 1, "박싱 없는 저장소 조회가 객체를 할당했습니다: " + bypassBytes);
+    }
+
+    // 지연 없이 동작하는 테이블
+    private static UserPointTable fastTable() {
+        return new UserPointTable() {
+            private final Map<Long, UserPoint> table = new HashMap<>();
+
+            @Override
+            public UserPoint selectById(Long id) {
+                return table.getOrDefault(id, UserPoint.empty(id));
+            }
+
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+                table.put(id, userPoint);
+                return userPoint;
+            }
+        };
+    }
+
+    // 사용자 ID 1000~2023 의 잔고를 반복 조회할 때 조회 한 번에 할당한 평균 바이트 수
+    private static double allocatedBytesPerRead(UserPointCache cache) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long sum = 0;
+        for (int i = 0; i < 200_000; i++) {
+            sum += cache.selectPointById(1000 + (i & 1023), -1);
+        }
+        int reads = 1_000_000;
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < reads; i++) {
+            sum += cache.selectPointById(1000 + (i & 1023), -1);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        assertTrue(sum > 0);
+        return (double) allocated / reads;
+    }
+}